@@ -0,0 +1,60 @@
+package appium.webdriver.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Base64;
+import java.util.Random;
+
+/**
+ * Shared fixtures for the benchmarks.
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Initializes TestLogger (and the SLF4J binding behind it) against a discarding console and
+     * no log file, so benchmarks measure the framework and not the terminal.
+     */
+    static void silenceFrameworkLogging() {
+        PrintStream out = System.out;
+        PrintStream err = System.err;
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+        System.setProperty("log.file", "");
+        System.setOut(discard);
+        System.setErr(discard);
+        try {
+            Class.forName("appium.webdriver.logging.TestLogger", true, BenchmarkSupport.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        } finally {
+            System.setOut(out);
+            System.setErr(err);
+        }
+    }
+
+    /**
+     * Base64 of a PNG-sized payload; content is random so it behaves like image data.
+     */
+    static String screenshotBase64(int sizeBytes) {
+        byte[] bytes = new byte[sizeBytes];
+        new Random(42).nextBytes(bytes);
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    /**
+     * UiAutomator-style page source with the given number of nodes; node i has resource-id
+     * "com.example:id/node_i" and text "Item i".
+     */
+    static String pageSource(int nodes) {
+        StringBuilder source = new StringBuilder(nodes * 160);
+        source.append("<?xml version='1.0' encoding='UTF-8' standalone='yes' ?><hierarchy rotation=\"0\">");
+        for (int i = 0; i < nodes; i++) {
+            source.append("<android.widget.TextView index=\"").append(i)
+                    .append("\" class=\"android.widget.TextView\" resource-id=\"com.example:id/node_").append(i)
+                    .append("\" text=\"Item ").append(i).append("\" content-desc=\"\" displayed=\"true\"/>");
+        }
+        return source.append("</hierarchy>").toString();
+    }
+}
@@ -0,0 +1,78 @@
+package appium.webdriver.benchmarks;
+
+import appium.webdriver.config.Config;
+import appium.webdriver.extensions.Utility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Property resolution: Utility.getProperty / Config lookups against the original
+ * system property -> environment -> Config.properties chain evaluated on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigBenchmark {
+
+    private Properties fileProperties;
+
+    @Setup
+    public void setUp() throws IOException {
+        BenchmarkSupport.silenceFrameworkLogging();
+        fileProperties = new Properties();
+        try (InputStream inputStream = Config.class.getClassLoader().getResourceAsStream("Config.properties")) {
+            fileProperties.load(inputStream);
+        }
+        // Resolve once so the lazily cached keys are measured warm
+        Config.get("wait.poll.interval.ms");
+    }
+
+    @Benchmark
+    public String getPropertyFileKey() {
+        return Utility.getProperty("appPackage");
+    }
+
+    @Benchmark
+    public String getPropertyMissingKey() {
+        return Utility.getProperty("benchmark.missing.key");
+    }
+
+    @Benchmark
+    public long getLong() {
+        return Config.getLong("wait.poll.interval.ms", 500);
+    }
+
+    @Benchmark
+    public String uncachedChain() {
+        return resolveUncached("appPackage");
+    }
+
+    // The lookup Utility.getProperty used to do on every call
+    private String resolveUncached(String key) {
+        String value = System.getProperty(key);
+        if (value != null && !value.isEmpty() && !value.equals("${" + key + "}")) {
+            return value;
+        }
+        value = System.getenv(key.toUpperCase().replace(".", "_"));
+        if (value != null && !value.isEmpty()) {
+            return value;
+        }
+        return fileProperties.getProperty(key);
+    }
+}
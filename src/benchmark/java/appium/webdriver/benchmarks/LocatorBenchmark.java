@@ -0,0 +1,85 @@
+package appium.webdriver.benchmarks;
+
+import appium.webdriver.extensions.PageSnapshot;
+import appium.webdriver.extensions.Utility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Locator fallback: the LoginPage username candidates resolved the old way (one findElements
+ * per candidate until a match), with Utility.findFirstMatch (mergeable candidates folded into
+ * one UiAutomator query) and from a PageSnapshot. The matching candidate is the last one, the
+ * worst case for a sequential loop. roundTripMicros adds a simulated Appium round-trip per command.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocatorBenchmark {
+
+    private static final By[] CANDIDATES = {
+            By.id("com.example:id/et_username"),
+            By.id("com.example:id/username"),
+            By.id("com.example:id/email"),
+            By.className("android.widget.AutoCompleteTextView"),
+            By.xpath("//*[@resource-id='com.example:id/node_150']")
+    };
+
+    @Param({"0", "200"})
+    public long roundTripMicros;
+
+    private WebDriver driver;
+    private String pageSource;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.silenceFrameworkLogging();
+        pageSource = BenchmarkSupport.pageSource(200);
+        driver = new StubDriver(Collections.singleton("com.example:id/node_150"), roundTripMicros,
+                pageSource, "").newDriver();
+    }
+
+    @Benchmark
+    public WebElement sequentialFallback() {
+        for (By candidate : CANDIDATES) {
+            List<WebElement> found = driver.findElements(candidate);
+            if (!found.isEmpty()) {
+                return found.get(0);
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public WebElement findFirstMatch() {
+        return Utility.findFirstMatch(driver, 0, CANDIDATES);
+    }
+
+    @Benchmark
+    public PageSnapshot.Node snapshotFallback() {
+        return PageSnapshot.of(driver.getPageSource()).findFirst(CANDIDATES);
+    }
+
+    @Benchmark
+    public PageSnapshot snapshotParse() {
+        return PageSnapshot.of(pageSource);
+    }
+}
@@ -0,0 +1,60 @@
+package appium.webdriver.benchmarks;
+
+import appium.webdriver.logging.TestLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TestLogger cost on the calling thread (enqueue only; once the ring buffer is full this is
+ * the drop path) and end to end (formatted and written by the drainer, measured by flushing
+ * after each batch). Console output is discarded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggerBenchmark {
+
+    private static final int BATCH = 256;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.silenceFrameworkLogging();
+    }
+
+    @Benchmark
+    public void infoCallerSide() {
+        TestLogger.info("Element found: com.example:id/username");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void infoWritten() {
+        for (int i = 0; i < BATCH; i++) {
+            TestLogger.info("Element found: com.example:id/username");
+        }
+        TestLogger.flush();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void elementWritten() {
+        for (int i = 0; i < BATCH; i++) {
+            TestLogger.element("Clicking", "By.id: com.example:id/login_button");
+        }
+        TestLogger.flush();
+    }
+}
@@ -0,0 +1,72 @@
+package appium.webdriver.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Base64;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Screenshot encoding paths. The server always answers with Base64; these compare what the
+ * framework does with it before it reaches Allure:
+ *   bytes          - getScreenshotAs(BYTES), as DriverManager.captureScreenshot does
+ *   bytesToBase64  - captureScreenshotAsBase64: BYTES, then re-encoded
+ *   base64ToAttach - AllureReportManager.attachScreenshot: a Base64 string decoded again
+ *   base64Direct   - getScreenshotAs(BASE64), no conversion at all
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScreenshotBenchmark {
+
+    // Typical PNG sizes of a phone screenshot
+    @Param({"300000", "1500000"})
+    public int sizeBytes;
+
+    private TakesScreenshot driver;
+    private String base64Screenshot;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.silenceFrameworkLogging();
+        base64Screenshot = BenchmarkSupport.screenshotBase64(sizeBytes);
+        WebDriver stub = new StubDriver(Collections.emptySet(), 0, "", base64Screenshot).newDriver();
+        driver = (TakesScreenshot) stub;
+    }
+
+    @Benchmark
+    public byte[] bytes() {
+        return driver.getScreenshotAs(OutputType.BYTES);
+    }
+
+    @Benchmark
+    public String bytesToBase64() {
+        return Base64.getEncoder().encodeToString(driver.getScreenshotAs(OutputType.BYTES));
+    }
+
+    @Benchmark
+    public byte[] base64ToAttach() {
+        return Base64.getDecoder().decode(bytesToBase64());
+    }
+
+    @Benchmark
+    public String base64Direct() {
+        return driver.getScreenshotAs(OutputType.BASE64);
+    }
+}
@@ -0,0 +1,121 @@
+package appium.webdriver.benchmarks;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory WebDriver for benchmarks: every command is answered locally, after an optional
+ * busy-wait standing in for the Appium round-trip, and counted.
+ *
+ * A locator matches when its value mentions one of the resource-ids "on screen", so id,
+ * UiAutomator and XPath candidates for the same element all resolve the same way.
+ */
+public class StubDriver {
+
+    private final Set<String> visibleIds;
+    private final long roundTripNanos;
+    private final String pageSource;
+    private final String screenshotBase64;
+    private final AtomicLong commands = new AtomicLong();
+
+    public StubDriver(Set<String> visibleIds, long roundTripMicros, String pageSource, String screenshotBase64) {
+        this.visibleIds = visibleIds;
+        this.roundTripNanos = roundTripMicros * 1_000;
+        this.pageSource = pageSource;
+        this.screenshotBase64 = screenshotBase64;
+    }
+
+    /**
+     * A WebDriver (also TakesScreenshot) proxy backed by this stub.
+     */
+    public WebDriver newDriver() {
+        return (WebDriver) Proxy.newProxyInstance(StubDriver.class.getClassLoader(),
+                new Class<?>[]{WebDriver.class, TakesScreenshot.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findElements":
+                            return findElements((By) args[0]);
+                        case "findElement":
+                            List<WebElement> found = findElements((By) args[0]);
+                            if (found.isEmpty()) {
+                                throw new NoSuchElementException("Stub: no match for " + args[0]);
+                            }
+                            return found.get(0);
+                        case "getPageSource":
+                            roundTrip();
+                            return pageSource;
+                        case "getScreenshotAs":
+                            roundTrip();
+                            return ((OutputType<?>) args[0]).convertFromBase64Png(screenshotBase64);
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "StubDriver";
+                        default:
+                            roundTrip();
+                            return null;
+                    }
+                });
+    }
+
+    public long getCommandCount() {
+        return commands.get();
+    }
+
+    private List<WebElement> findElements(By locator) {
+        roundTrip();
+        String description = locator.toString();
+        for (String id : visibleIds) {
+            if (description.contains(id)) {
+                return Collections.singletonList(newElement(id));
+            }
+        }
+        return new ArrayList<>();
+    }
+
+    private WebElement newElement(String id) {
+        return (WebElement) Proxy.newProxyInstance(StubDriver.class.getClassLoader(),
+                new Class<?>[]{WebElement.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "isDisplayed":
+                        case "isEnabled":
+                            return true;
+                        case "getAttribute":
+                            return "resource-id".equals(args[0]) ? id : null;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "StubElement[" + id + "]";
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    // Stands in for the HTTP round-trip to Appium; busy-waits so short delays stay accurate
+    private void roundTrip() {
+        commands.incrementAndGet();
+        if (roundTripNanos > 0) {
+            long deadline = System.nanoTime() + roundTripNanos;
+            while (System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
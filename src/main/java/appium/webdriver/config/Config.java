@@ -0,0 +1,214 @@
+package appium.webdriver.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Config - layered, resolve-once configuration.
+ *
+ * Sources, highest priority first:
+ *   1. System properties (-Dkey=value; unresolved Maven "${key}" placeholders are ignored)
+ *   2. Environment variables (key uppercased, dots as underscores: wait.poll.max.ms -> WAIT_POLL_MAX_MS)
+ *   3. config/<platform>/devices/<device.profile>.properties (only when device.profile is set)
+ *   4. config/<platform>/Config.properties (platform from the "platform" property, else platformName)
+ *   5. Config.properties
+ *
+ * A platform or device file only lists what differs from the layers below it; every value it
+ * changes is logged at load time so a layer cannot silently shift an effective setting.
+ *
+ * Every key found in the property files is resolved when the class loads; any other key is
+ * resolved on first use. Both are cached, so later lookups are a map read with no string
+ * building, and an override is reported once instead of on every call.
+ */
+public class Config {
+
+    private static final String BASE_FILE = "Config.properties";
+    // Cached for keys no source defines (a ConcurrentHashMap cannot hold null)
+    private static final Object NOT_SET = new Object();
+
+    private static final Map<String, String> fileValues;
+    private static final String platform;
+    private static final String deviceProfile;
+    private static final Map<String, Object> resolved = new ConcurrentHashMap<>();
+
+    static {
+        Properties loaded = load(BASE_FILE);
+        if (loaded == null) {
+            // Fallback: try alternative filename (lowercase)
+            loaded = load("config.properties");
+        }
+        if (loaded == null) {
+            throw new RuntimeException("Could not find Config.properties in classpath. Ensure the file exists in src/main/resources/");
+        }
+        System.out.println("Config.properties loaded successfully from classpath");
+
+        Properties base = loaded;
+        Map<String, String> values = new HashMap<>();
+        base.stringPropertyNames().forEach(key -> values.put(key, base.getProperty(key)));
+
+        String selectedPlatform = override("platform");
+        if (selectedPlatform == null) {
+            selectedPlatform = override("platformName");
+        }
+        if (selectedPlatform == null) {
+            selectedPlatform = values.getOrDefault("platform", values.get("platformName"));
+        }
+        platform = selectedPlatform == null ? null : selectedPlatform.trim().toLowerCase(Locale.ROOT);
+
+        if (platform != null) {
+            Properties platformProperties = load("config/" + platform + "/" + BASE_FILE);
+            if (platformProperties != null) {
+                layer(values, platformProperties, "config/" + platform + "/" + BASE_FILE);
+                System.out.println("Loaded " + platform + " configuration from config/" + platform + "/" + BASE_FILE);
+            }
+        }
+
+        String selectedProfile = override("device.profile");
+        deviceProfile = selectedProfile != null ? selectedProfile.trim() : blankToNull(values.get("device.profile"));
+        if (deviceProfile != null) {
+            String profileResource = "config/" + platform + "/devices/" + deviceProfile + ".properties";
+            Properties profileProperties = load(profileResource);
+            if (profileProperties == null) {
+                throw new RuntimeException("Device profile '" + deviceProfile + "' not found: " + profileResource);
+            }
+            layer(values, profileProperties, profileResource);
+            System.out.println("Loaded device profile from " + profileResource);
+        }
+        fileValues = Collections.unmodifiableMap(values);
+        fileValues.keySet().forEach(Config::resolve);
+    }
+
+    /**
+     * Resolved value of the key, or null if no source defines it.
+     */
+    public static String get(String key) {
+        Object value = resolved.get(key);
+        if (value == null) {
+            value = resolve(key);
+        }
+        return value == NOT_SET ? null : (String) value;
+    }
+
+    /**
+     * Resolved value of the key, or the default when it is unset or blank.
+     */
+    public static String getString(String key, String defaultValue) {
+        String value = get(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Config key '" + key + "' is not an integer: " + value, e);
+        }
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        try {
+            return value == null ? defaultValue : Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Config key '" + key + "' is not a number: " + value, e);
+        }
+    }
+
+    public static double getDouble(String key, double defaultValue) {
+        String value = getString(key, null);
+        try {
+            return value == null ? defaultValue : Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Config key '" + key + "' is not a number: " + value, e);
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Lower-case platform whose profile was layered in (e.g. "android"), or null.
+     */
+    public static String getPlatform() {
+        return platform;
+    }
+
+    /**
+     * Name of the device profile layered in, or null when none is selected.
+     */
+    public static String getDeviceProfile() {
+        return deviceProfile;
+    }
+
+    private static Object resolve(String key) {
+        return resolved.computeIfAbsent(key, k -> {
+            String value = System.getProperty(k);
+            if (isSet(value) && !value.equals("${" + k + "}")) {
+                System.out.println("Using system property for " + k + ": " + value);
+                return value;
+            }
+            value = System.getenv(toEnvironmentKey(k));
+            if (isSet(value)) {
+                System.out.println("Using environment variable for " + k + ": " + value);
+                return value;
+            }
+            value = fileValues.get(k);
+            return value != null ? value : NOT_SET;
+        });
+    }
+
+    // Puts a layer's values over the lower ones, reporting every value it changes
+    private static void layer(Map<String, String> values, Properties layer, String resource) {
+        for (String key : layer.stringPropertyNames()) {
+            String value = layer.getProperty(key);
+            String previous = values.put(key, value);
+            if (previous != null && !previous.equals(value)) {
+                System.out.println(resource + " overrides " + key + ": " + previous + " -> " + value);
+            }
+        }
+    }
+
+    // Only used while loading, before the file layers are known
+    private static String override(String key) {
+        String value = System.getProperty(key);
+        if (isSet(value) && !value.equals("${" + key + "}")) {
+            return value;
+        }
+        value = System.getenv(toEnvironmentKey(key));
+        return isSet(value) ? value : null;
+    }
+
+    private static String toEnvironmentKey(String key) {
+        return key.toUpperCase(Locale.ROOT).replace(".", "_");
+    }
+
+    private static boolean isSet(String value) {
+        return value != null && !value.isEmpty();
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
+    private static Properties load(String resource) {
+        try (InputStream inputStream = Config.class.getClassLoader().getResourceAsStream(resource)) {
+            if (inputStream == null) {
+                return null;
+            }
+            Properties properties = new Properties();
+            properties.load(inputStream);
+            return properties;
+        } catch (IOException e) {
+            throw new RuntimeException("Could not load " + resource + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package appium.webdriver.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Run Config - the validated, typed view of Config that sessions are built from.
+ *
+ * load() reads and checks everything a session needs up front (Hooks.beforeAll calls it),
+ * so a missing appActivity or a non-numeric port fails the run in milliseconds instead of
+ * after an Appium session timeout. All problems are reported together.
+ *
+ * Required keys:
+ *   android: platformName, deviceName (or deviceNames), appPackage, appActivity
+ *   ios:     platformName, deviceName (or deviceNames), bundleId
+ */
+public final class RunConfig {
+
+    private static volatile RunConfig instance;
+
+    private final String platform;
+    private final String deviceProfile;
+    private final String platformName;
+    private final String automationName;
+    private final String deviceName;
+    private final String appPackage;
+    private final String appActivity;
+    private final String bundleId;
+    private final boolean noReset;
+    private final boolean forceAppLaunch;
+    private final int workerCount;
+    private final int shardIndex;
+    private final int shardCount;
+
+    private RunConfig(List<String> problems) {
+        platform = Config.getPlatform();
+        deviceProfile = Config.getDeviceProfile();
+        platformName = require("platformName", problems);
+        boolean ios = "ios".equalsIgnoreCase(platformName);
+        automationName = Config.getString("automationName", ios ? "XCUITest" : "UiAutomator2");
+        deviceName = Config.getString("deviceName", null);
+        if (deviceName == null && Config.getString("deviceNames", null) == null) {
+            problems.add("deviceName (or deviceNames) is not set");
+        }
+        if (ios) {
+            bundleId = require("bundleId", problems);
+            appPackage = null;
+            appActivity = null;
+        } else {
+            appPackage = require("appPackage", problems);
+            appActivity = require("appActivity", problems);
+            bundleId = null;
+        }
+        noReset = Config.getBoolean("noReset", true);
+        forceAppLaunch = Config.getBoolean("forceAppLaunch", true);
+        workerCount = checkedInt("parallel.workers", 1, problems);
+        shardCount = checkedInt("shard.count", 1, problems);
+        shardIndex = checkedInt("shard.index", 1, problems);
+        if (shardCount < 1 || shardIndex < 1 || shardIndex > shardCount) {
+            problems.add("shard.index must be between 1 and shard.count (got " + shardIndex + "/" + shardCount + ")");
+        }
+
+        // Numeric keys read elsewhere; parse them now so a typo fails here
+        for (String key : new String[] {"appium.port.base", "systemPort.base", "chromedriverPort.base",
+                "mjpegServerPort.base", "device.lease.timeout.seconds", "wait.poll.floor.ms",
+                "wait.poll.max.ms", "wait.poll.interval.ms"}) {
+            checkedInt(key, 0, problems);
+        }
+    }
+
+    /**
+     * Loads and validates the configuration once.
+     * @throws IllegalStateException listing every missing or malformed key
+     */
+    public static synchronized RunConfig load() {
+        if (instance == null) {
+            List<String> problems = new ArrayList<>();
+            RunConfig config = new RunConfig(problems);
+            if (!problems.isEmpty()) {
+                throw new IllegalStateException("Invalid configuration (platform " + config.platform
+                        + (config.deviceProfile != null ? ", device profile " + config.deviceProfile : "")
+                        + "): " + String.join("; ", problems));
+            }
+            instance = config;
+        }
+        return instance;
+    }
+
+    /**
+     * The validated configuration, loading it on first use.
+     */
+    public static RunConfig get() {
+        RunConfig config = instance;
+        return config != null ? config : load();
+    }
+
+    public String getPlatform() {
+        return platform;
+    }
+
+    public String getDeviceProfile() {
+        return deviceProfile;
+    }
+
+    public String getPlatformName() {
+        return platformName;
+    }
+
+    public String getAutomationName() {
+        return automationName;
+    }
+
+    /**
+     * Default device; parallel runs pick theirs from the device pool instead.
+     */
+    public String getDeviceName() {
+        return deviceName;
+    }
+
+    public String getAppPackage() {
+        return appPackage;
+    }
+
+    public String getAppActivity() {
+        return appActivity;
+    }
+
+    public String getBundleId() {
+        return bundleId;
+    }
+
+    public boolean isNoReset() {
+        return noReset;
+    }
+
+    public boolean isForceAppLaunch() {
+        return forceAppLaunch;
+    }
+
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    /**
+     * 1-based shard of the scenarios this run executes (see ShardPlanner).
+     */
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    @Override
+    public String toString() {
+        return "platform=" + platform + (deviceProfile != null ? ", deviceProfile=" + deviceProfile : "")
+                + ", platformName=" + platformName + ", automationName=" + automationName
+                + ", deviceName=" + deviceName
+                + (appPackage != null ? ", app=" + appPackage + "/" + appActivity : ", bundleId=" + bundleId)
+                + ", workers=" + workerCount
+                + (shardCount > 1 ? ", shard=" + shardIndex + "/" + shardCount : "");
+    }
+
+    private static String require(String key, List<String> problems) {
+        String value = Config.getString(key, null);
+        if (value == null) {
+            problems.add(key + " is not set");
+        }
+        return value;
+    }
+
+    private static int checkedInt(String key, int defaultValue, List<String> problems) {
+        try {
+            return Config.getInt(key, defaultValue);
+        } catch (IllegalArgumentException e) {
+            problems.add(e.getMessage());
+            return defaultValue;
+        }
+    }
+}
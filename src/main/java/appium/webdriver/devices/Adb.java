@@ -0,0 +1,131 @@
+package appium.webdriver.devices;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thin wrapper around the local adb executable.
+ * Resolves adb from ANDROID_HOME / ANDROID_SDK_ROOT platform-tools, falling back to PATH.
+ */
+public class Adb {
+
+    private static final String ADB_EXECUTABLE = resolveExecutable();
+    private static volatile Boolean available;
+
+    /**
+     * Runs adb with the given arguments and returns its trimmed stdout.
+     * @throws IOException if adb cannot be started, times out or exits with a non-zero code
+     */
+    public static String run(long timeoutMillis, String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(ADB_EXECUTABLE);
+        command.addAll(Arrays.asList(args));
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        // Drain output concurrently so a chatty command can't block on a full pipe
+        CompletableFuture<String> output = CompletableFuture.supplyAsync(() -> readFully(process.getInputStream()));
+        try {
+            if (!process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+                throw new IOException("adb " + String.join(" ", args) + " timed out after " + timeoutMillis + "ms");
+            }
+            String result = output.join().trim();
+            if (process.exitValue() != 0) {
+                throw new IOException("adb " + String.join(" ", args) + " failed: " + result);
+            }
+            return result;
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running adb " + String.join(" ", args), e);
+        }
+    }
+
+    /**
+     * Whether a working adb executable is reachable from this machine (checked once).
+     * Remote device farms reached through an external Appium server usually have none.
+     */
+    public static boolean isAvailable() {
+        if (available == null) {
+            try {
+                run(10000, "version");
+                available = true;
+            } catch (IOException e) {
+                available = false;
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Runs an adb command against a specific device serial.
+     */
+    public static String runOnDevice(String serial, long timeoutMillis, String... args) throws IOException {
+        String[] deviceArgs = new String[args.length + 2];
+        deviceArgs[0] = "-s";
+        deviceArgs[1] = serial;
+        System.arraycopy(args, 0, deviceArgs, 2, args.length);
+        return run(timeoutMillis, deviceArgs);
+    }
+
+    /**
+     * Starts a long-running adb process (e.g. logcat) against a device and returns it unconsumed.
+     */
+    public static Process start(String serial, String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(ADB_EXECUTABLE);
+        command.add("-s");
+        command.add(serial);
+        command.addAll(Arrays.asList(args));
+        return new ProcessBuilder(command).redirectErrorStream(true).start();
+    }
+
+    /**
+     * Serials of all attached devices/emulators in the "device" state.
+     */
+    public static List<String> listDevices() throws IOException {
+        List<String> serials = new ArrayList<>();
+        for (String line : run(10000, "devices").split("\\R")) {
+            String[] columns = line.trim().split("\\s+");
+            if (columns.length >= 2 && "device".equals(columns[1])) {
+                serials.add(columns[0]);
+            }
+        }
+        return serials;
+    }
+
+    private static String readFully(InputStream stream) {
+        try (InputStream input = stream) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            input.transferTo(buffer);
+            return buffer.toString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    private static String resolveExecutable() {
+        for (String sdkVariable : new String[] {"ANDROID_HOME", "ANDROID_SDK_ROOT"}) {
+            String sdk = System.getenv(sdkVariable);
+            if (sdk != null && !sdk.isEmpty()) {
+                File adb = new File(sdk, "platform-tools" + File.separator + (isWindows() ? "adb.exe" : "adb"));
+                if (adb.isFile()) {
+                    return adb.getAbsolutePath();
+                }
+            }
+        }
+        return "adb";
+    }
+
+    private static boolean isWindows() {
+        return System.getProperty("os.name", "").toLowerCase().contains("win");
+    }
+}
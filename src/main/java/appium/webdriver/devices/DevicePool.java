@@ -0,0 +1,266 @@
+package appium.webdriver.devices;
+
+import appium.webdriver.config.Config;
+import appium.webdriver.logging.TestLogger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Device Pool - leases attached devices/emulators to scenarios.
+ *
+ * Devices come from the comma separated deviceNames property or, when that is empty,
+ * from "adb devices"; deviceName is the last resort. Each scenario leases one free device
+ * in Hooks.beforeScenario and returns it in Hooks.afterScenario. A worker is handed back the
+ * device it used last whenever that device is free, so its driver session can be reused.
+ * Devices that fail the adb health check are quarantined for the rest of the run.
+ * With appium.mock=true there are no real devices: adb is neither asked for devices nor used
+ * for health checks, so the pool holds deviceNames (or deviceName) as given.
+ *
+ * Usage:
+ *   String serial = DevicePool.lease("My scenario");
+ *   ...
+ *   DevicePool.release(scenarioFailed);
+ */
+public class DevicePool {
+
+    private static final long HEALTH_CHECK_TIMEOUT_MS = 5000;
+    private static final long DEFAULT_LEASE_TIMEOUT_SECONDS = 300;
+    // The mock server stands in for the devices, so adb has nothing to report about them
+    private static final boolean USE_MOCK_APPIUM = Config.getBoolean("appium.mock", false);
+
+    private static final Object lock = new Object();
+    private static final Set<String> freeDevices = new LinkedHashSet<>();
+    private static final Map<String, String> quarantinedDevices = new LinkedHashMap<>();
+    private static final Map<String, DeviceStats> deviceStats = new LinkedHashMap<>();
+    private static final ThreadLocal<String> currentLease = new ThreadLocal<>();
+    private static final ThreadLocal<String> lastLeased = new ThreadLocal<>();
+    private static boolean initialized = false;
+    private static long initializedAtNanos;
+
+    /**
+     * Discovers the devices available to this run. Safe to call more than once.
+     */
+    public static void initialize() {
+        synchronized (lock) {
+            if (initialized) {
+                return;
+            }
+            List<String> serials = discoverDevices();
+            for (String serial : serials) {
+                freeDevices.add(serial);
+                deviceStats.put(serial, new DeviceStats());
+            }
+            initializedAtNanos = System.nanoTime();
+            initialized = true;
+            TestLogger.info("Device pool initialized with " + serials.size() + " device(s): " + serials);
+        }
+    }
+
+    /**
+     * Leases a healthy device to the calling thread, blocking until one is free.
+     * @return the serial of the leased device
+     * @throws IllegalStateException if every device is quarantined or none frees up in time
+     */
+    public static String lease(String scenarioName) {
+        initialize();
+        String existing = currentLease.get();
+        if (existing != null) {
+            return existing;
+        }
+
+        long deadline = System.nanoTime() + getLeaseTimeoutSeconds() * 1_000_000_000L;
+        while (true) {
+            String serial = takeFreeDevice(deadline);
+            if (isHealthy(serial)) {
+                synchronized (lock) {
+                    deviceStats.get(serial).leaseStarted();
+                }
+                currentLease.set(serial);
+                lastLeased.set(serial);
+                TestLogger.info("Leased device " + serial + " to scenario: " + scenarioName);
+                return serial;
+            }
+            quarantine(serial, "failed health check before lease");
+        }
+    }
+
+    /**
+     * Returns the calling thread's device to the pool. After a failed scenario the device is
+     * health checked first and quarantined if it no longer responds.
+     */
+    public static void release(boolean scenarioFailed) {
+        String serial = currentLease.get();
+        if (serial == null) {
+            return;
+        }
+        currentLease.remove();
+
+        if (scenarioFailed && !isHealthy(serial)) {
+            synchronized (lock) {
+                deviceStats.get(serial).leaseEnded();
+            }
+            quarantine(serial, "failed health check after scenario failure");
+            return;
+        }
+
+        synchronized (lock) {
+            deviceStats.get(serial).leaseEnded();
+            freeDevices.add(serial);
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Removes a device from rotation for the rest of the run.
+     */
+    public static void quarantine(String serial, String reason) {
+        synchronized (lock) {
+            freeDevices.remove(serial);
+            quarantinedDevices.put(serial, reason);
+            lock.notifyAll();
+        }
+        if (serial.equals(currentLease.get())) {
+            currentLease.remove();
+        }
+        TestLogger.warn("Device " + serial + " quarantined: " + reason);
+    }
+
+    /**
+     * Serial of the device currently leased by the calling thread, or null.
+     */
+    public static String getLeasedDevice() {
+        return currentLease.get();
+    }
+
+    /**
+     * Logs lease count, busy time and utilization for every device in the pool.
+     */
+    public static void logUtilization() {
+        synchronized (lock) {
+            if (!initialized) {
+                return;
+            }
+            long elapsedMillis = Math.max(1, (System.nanoTime() - initializedAtNanos) / 1_000_000);
+            TestLogger.separator();
+            TestLogger.info("Device utilization over " + (elapsedMillis / 1000) + "s:");
+            for (Map.Entry<String, DeviceStats> entry : deviceStats.entrySet()) {
+                DeviceStats stats = entry.getValue();
+                long busyMillis = stats.getBusyMillis();
+                String status = quarantinedDevices.containsKey(entry.getKey())
+                        ? " [QUARANTINED: " + quarantinedDevices.get(entry.getKey()) + "]" : "";
+                TestLogger.info(String.format("  %s - %d lease(s), busy %ds, utilization %.1f%%%s",
+                        entry.getKey(), stats.leaseCount, busyMillis / 1000,
+                        busyMillis * 100.0 / elapsedMillis, status));
+            }
+            TestLogger.separator();
+        }
+    }
+
+    private static String takeFreeDevice(long deadlineNanos) {
+        synchronized (lock) {
+            while (true) {
+                if (freeDevices.isEmpty() && quarantinedDevices.size() == deviceStats.size()) {
+                    throw new IllegalStateException("No healthy devices left in the pool, quarantined: " + quarantinedDevices);
+                }
+                String preferred = lastLeased.get();
+                if (preferred != null && freeDevices.remove(preferred)) {
+                    return preferred;
+                }
+                if (!freeDevices.isEmpty()) {
+                    String serial = freeDevices.iterator().next();
+                    freeDevices.remove(serial);
+                    return serial;
+                }
+                long remainingMillis = (deadlineNanos - System.nanoTime()) / 1_000_000;
+                if (remainingMillis <= 0) {
+                    throw new IllegalStateException("Timed out waiting for a free device after " + getLeaseTimeoutSeconds() + "s");
+                }
+                try {
+                    lock.wait(remainingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for a free device", e);
+                }
+            }
+        }
+    }
+
+    private static boolean isHealthy(String serial) {
+        if (USE_MOCK_APPIUM || !Config.getBoolean("device.healthcheck", true) || !Adb.isAvailable()) {
+            return true;
+        }
+        try {
+            return "device".equals(Adb.runOnDevice(serial, HEALTH_CHECK_TIMEOUT_MS, "get-state"));
+        } catch (IOException e) {
+            TestLogger.debug("Health check for " + serial + " failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static List<String> discoverDevices() {
+        String deviceNames = Config.get("deviceNames");
+        if (deviceNames != null && !deviceNames.trim().isEmpty()) {
+            List<String> serials = new ArrayList<>();
+            for (String serial : deviceNames.split(",")) {
+                if (!serial.trim().isEmpty()) {
+                    serials.add(serial.trim());
+                }
+            }
+            return serials;
+        }
+        if (USE_MOCK_APPIUM) {
+            return Collections.singletonList(Config.get("deviceName"));
+        }
+
+        try {
+            List<String> attached = Adb.listDevices();
+            if (!attached.isEmpty()) {
+                return attached;
+            }
+            TestLogger.warn("adb reports no attached devices, falling back to deviceName");
+        } catch (IOException e) {
+            TestLogger.warn("Could not list devices via adb, falling back to deviceName: " + e.getMessage());
+        }
+        return Collections.singletonList(Config.get("deviceName"));
+    }
+
+    private static long getLeaseTimeoutSeconds() {
+        return Config.getLong("device.lease.timeout.seconds", DEFAULT_LEASE_TIMEOUT_SECONDS);
+    }
+
+    /**
+     * Per-device lease bookkeeping; guarded by the pool lock.
+     */
+    private static class DeviceStats {
+        private int leaseCount;
+        private long busyNanos;
+        private long leasedAtNanos = -1;
+
+        void leaseStarted() {
+            leaseCount++;
+            leasedAtNanos = System.nanoTime();
+        }
+
+        void leaseEnded() {
+            if (leasedAtNanos >= 0) {
+                busyNanos += System.nanoTime() - leasedAtNanos;
+                leasedAtNanos = -1;
+            }
+        }
+
+        long getBusyMillis() {
+            long busy = busyNanos;
+            if (leasedAtNanos >= 0) {
+                busy += System.nanoTime() - leasedAtNanos;
+            }
+            return busy / 1_000_000;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package appium.webdriver.devices;
+
+import appium.webdriver.config.Config;
+import appium.webdriver.logging.TestLogger;
+import io.qameta.allure.Allure;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.logging.LogEntry;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Logcat Collector - streams a device's logcat into a bounded per-scenario buffer.
+ *
+ * DriverManager starts one collector per session. With a local adb (logcat.source=auto or adb)
+ * a background thread reads "adb logcat -v threadtime" as it is written; otherwise (remote
+ * server, mock) the Appium "logcat" log type is polled, each poll returning only the entries
+ * since the previous one. Polls are sent from the scenario's own thread, never from a
+ * background one, so they do not interleave with the scenario's commands on the session and
+ * CommandProfiler counts them for the scenario: Hooks calls poll() after every step (at most
+ * once per logcat.poll.seconds) and attach() polls a last time. Only lines of the app are kept: those of
+ * the app's process (found with pidof and followed across restarts through ActivityManager's
+ * "Start proc" lines) or mentioning appPackage. The buffer holds the last logcat.max.lines
+ * lines of the current scenario; Hooks empties it when a scenario starts and attaches it to
+ * Allure only when the scenario failed.
+ */
+public class LogcatCollector {
+
+    private static final boolean ENABLED = Config.getBoolean("logcat.enabled", true);
+    private static final String SOURCE = Config.getString("logcat.source", "auto").trim().toLowerCase(Locale.ROOT);
+    private static final int MAX_LINES = Config.getInt("logcat.max.lines", 2000);
+    private static final long POLL_MILLIS = Math.max(1, Config.getLong("logcat.poll.seconds", 2)) * 1000;
+
+    // threadtime: "MM-DD HH:MM:SS.mmm  PID  TID L TAG: message"
+    private static final Pattern THREADTIME_PID = Pattern.compile("^\\S+\\s+\\S+\\s+(\\d+)\\s+\\d+\\s");
+    private static final Pattern PROCESS_START = Pattern.compile("Start proc (\\d+):([\\w.]+)");
+
+    private static final Map<String, LogcatCollector> collectors = new ConcurrentHashMap<>();
+    // Looks up the app's pid with adb, off the test thread (never talks to the Appium session)
+    private static final ExecutorService pidLookup = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "logcat-pid");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String serial;
+    private final String appPackage;
+    private final Deque<String> lines = new ArrayDeque<>();
+    private volatile String appPid;
+    private long dropped;
+    private Process process;
+    private WebDriver driver;
+    private volatile long lastPollAt;
+
+    private LogcatCollector(String serial, String appPackage) {
+        this.serial = serial;
+        this.appPackage = appPackage;
+    }
+
+    /**
+     * Starts collecting the device's logcat for a new session, replacing an earlier collector.
+     * @param localDevice whether the device is attached to this machine (adb can reach it)
+     */
+    public static void start(String serial, String appPackage, WebDriver driver, boolean localDevice) {
+        if (!ENABLED || serial == null) {
+            return;
+        }
+        stop(serial);
+        LogcatCollector collector = new LogcatCollector(serial, appPackage);
+        boolean useAdb = "adb".equals(SOURCE) || ("auto".equals(SOURCE) && localDevice && Adb.isAvailable());
+        try {
+            if (useAdb) {
+                collector.startAdb();
+            } else {
+                collector.startPolling(driver);
+            }
+            collectors.put(serial, collector);
+        } catch (IOException | RuntimeException e) {
+            TestLogger.warn("Logcat capture not started for " + serial + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the device's collector (session quit).
+     */
+    public static void stop(String serial) {
+        LogcatCollector collector = serial == null ? null : collectors.remove(serial);
+        if (collector != null) {
+            collector.close();
+        }
+    }
+
+    public static void stopAll() {
+        for (String serial : collectors.keySet()) {
+            stop(serial);
+        }
+    }
+
+    /**
+     * Empties the device's buffer so it only holds the lines of the scenario that starts now.
+     */
+    public static void startScenario(String serial) {
+        LogcatCollector collector = serial == null ? null : collectors.get(serial);
+        if (collector != null) {
+            collector.clear();
+        }
+    }
+
+    /**
+     * Fetches the lines logged since the last poll when polling the Appium log endpoint and
+     * logcat.poll.seconds have passed; call it from the thread that drives the session.
+     */
+    public static void poll(String serial) {
+        LogcatCollector collector = serial == null ? null : collectors.get(serial);
+        if (collector != null && System.currentTimeMillis() - collector.lastPollAt >= POLL_MILLIS) {
+            collector.poll();
+        }
+    }
+
+    /**
+     * Attaches the device's lines of the current scenario to the Allure report; call it from the
+     * thread that drives the session.
+     */
+    public static void attach(String serial, String scenarioName) {
+        LogcatCollector collector = serial == null ? null : collectors.get(serial);
+        if (collector == null) {
+            return;
+        }
+        // Pick up what was logged since the last poll, the failure itself included
+        collector.poll();
+        String content = collector.drain();
+        if (!content.isEmpty()) {
+            Allure.addAttachment("📜 Logcat: " + scenarioName, "text/plain", content, ".txt");
+        }
+    }
+
+    private void startAdb() throws IOException {
+        refreshPid();
+        // -T 1: start at the latest line instead of dumping the whole ring buffer first
+        process = Adb.start(serial, "logcat", "-v", "threadtime", "-T", "1");
+        Thread reader = new Thread(() -> {
+            try (BufferedReader output = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = output.readLine()) != null) {
+                    add(line);
+                }
+            } catch (IOException e) {
+                TestLogger.debug("Logcat stream of " + serial + " closed: " + e.getMessage());
+            }
+        }, "logcat-" + serial);
+        reader.setDaemon(true);
+        reader.start();
+        TestLogger.debug("Logcat capture started for " + serial + " (adb)");
+    }
+
+    private void startPolling(WebDriver sessionDriver) {
+        driver = sessionDriver;
+        // What the server buffered so far belongs to no scenario, but may tell the app's pid
+        for (LogEntry entry : driver.manage().logs().get("logcat")) {
+            add(entry.getMessage());
+        }
+        clear();
+        lastPollAt = System.currentTimeMillis();
+        TestLogger.debug("Logcat capture started for " + serial + " (Appium log endpoint)");
+    }
+
+    private synchronized void poll() {
+        if (driver == null) {
+            return;
+        }
+        lastPollAt = System.currentTimeMillis();
+        try {
+            for (LogEntry entry : driver.manage().logs().get("logcat")) {
+                add(entry.getMessage());
+            }
+        } catch (RuntimeException e) {
+            TestLogger.warn("Logcat polling stopped for " + serial + ": " + e.getMessage());
+            close();
+        }
+    }
+
+    private void add(String line) {
+        Matcher start = PROCESS_START.matcher(line);
+        if (start.find() && start.group(2).equals(appPackage)) {
+            appPid = start.group(1);
+        }
+        if (!isAppLine(line)) {
+            return;
+        }
+        synchronized (lines) {
+            if (lines.size() >= MAX_LINES) {
+                lines.removeFirst();
+                dropped++;
+            }
+            lines.addLast(line);
+        }
+    }
+
+    private boolean isAppLine(String line) {
+        if (appPackage == null || appPackage.isEmpty() || line.contains(appPackage)) {
+            return true;
+        }
+        Matcher pid = THREADTIME_PID.matcher(line);
+        return appPid != null && pid.find() && pid.group(1).equals(appPid);
+    }
+
+    private void clear() {
+        synchronized (lines) {
+            lines.clear();
+            dropped = 0;
+        }
+        if (process != null) {
+            // The app may have been restarted without a "Start proc" line reaching us yet
+            pidLookup.execute(this::refreshPid);
+        }
+    }
+
+    private String drain() {
+        synchronized (lines) {
+            StringBuilder content = new StringBuilder();
+            if (dropped > 0) {
+                content.append("... ").append(dropped).append(" earlier line(s) dropped (logcat.max.lines=")
+                        .append(MAX_LINES).append(")\n");
+            }
+            for (String line : lines) {
+                content.append(line).append('\n');
+            }
+            lines.clear();
+            dropped = 0;
+            return content.toString();
+        }
+    }
+
+    private void refreshPid() {
+        try {
+            String pid = Adb.runOnDevice(serial, 5000, "shell", "pidof", appPackage).trim();
+            if (!pid.isEmpty()) {
+                appPid = pid.split("\\s+")[0];
+            }
+        } catch (IOException e) {
+            // Not running (pidof exits 1): the next "Start proc" line gives the pid
+        }
+    }
+
+    private synchronized void close() {
+        driver = null;
+        if (process != null) {
+            process.destroy();
+        }
+    }
+}
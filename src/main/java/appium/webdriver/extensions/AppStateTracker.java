@@ -0,0 +1,98 @@
+package appium.webdriver.extensions;
+
+import appium.webdriver.config.Config;
+import appium.webdriver.logging.TestLogger;
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.appmanagement.ApplicationState;
+
+/**
+ * App State Tracker - remembers the app state and foreground activity of the calling
+ * worker's session so lifecycle code does not probe the device for facts it just caused.
+ *
+ * DriverManager records every transition it performs (session start, activate, startActivity,
+ * terminate). A recorded value is trusted for appstate.max.age.ms (default 3000); after that,
+ * or after invalidate(), the next read queries the device once and records the answer.
+ */
+public class AppStateTracker {
+
+    private static final long MAX_AGE_MS = Config.getLong("appstate.max.age.ms", 3000);
+
+    private static final ThreadLocal<State> states = ThreadLocal.withInitial(State::new);
+
+    /**
+     * App state, from the last known transition if it is fresh, otherwise from the device.
+     */
+    public static ApplicationState getAppState(AndroidDriver driver, String appPackage) {
+        State state = states.get();
+        if (state.appState == null || isStale(state.appStateAt)) {
+            recordAppState(driver.queryAppState(appPackage));
+        } else {
+            TestLogger.debug("Using tracked app state " + state.appState);
+        }
+        return state.appState;
+    }
+
+    /**
+     * Foreground activity, from the last known transition if it is fresh, otherwise from the device.
+     */
+    public static String getActivity(AndroidDriver driver) {
+        State state = states.get();
+        if (state.activity == null || isStale(state.activityAt)) {
+            recordActivity(driver.currentActivity());
+        } else {
+            TestLogger.debug("Using tracked activity " + state.activity);
+        }
+        return state.activity;
+    }
+
+    public static void recordAppState(ApplicationState appState) {
+        State state = states.get();
+        state.appState = appState;
+        state.appStateAt = System.currentTimeMillis();
+    }
+
+    public static void recordActivity(String activity) {
+        State state = states.get();
+        state.activity = activity;
+        state.activityAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Records that the app was brought to the foreground; the activity is unknown until read.
+     */
+    public static void recordForeground() {
+        recordAppState(ApplicationState.RUNNING_IN_FOREGROUND);
+        states.get().activity = null;
+    }
+
+    /**
+     * Records that the app is in the foreground on the given activity.
+     */
+    public static void recordForeground(String activity) {
+        recordAppState(ApplicationState.RUNNING_IN_FOREGROUND);
+        recordActivity(activity);
+    }
+
+    public static void recordTerminated() {
+        recordAppState(ApplicationState.NOT_RUNNING);
+        states.get().activity = null;
+    }
+
+    /**
+     * Forgets everything tracked for the calling worker, e.g. when its session ends.
+     */
+    public static void invalidate() {
+        states.remove();
+    }
+
+    private static boolean isStale(long recordedAt) {
+        return System.currentTimeMillis() - recordedAt > MAX_AGE_MS;
+    }
+
+    private static class State {
+        private ApplicationState appState;
+        private long appStateAt;
+        private String activity;
+        private long activityAt;
+    }
+}
@@ -1,109 +1,151 @@
 package appium.webdriver.extensions;
 
 import io.appium.java_client.android.AndroidDriver;
-import io.appium.java_client.service.local.AppiumDriverLocalService;
-import io.appium.java_client.service.local.AppiumServiceBuilder;
+import io.appium.java_client.appmanagement.ApplicationState;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.remote.DesiredCapabilities;
+import appium.webdriver.config.Config;
+import appium.webdriver.config.RunConfig;
+import appium.webdriver.devices.DevicePool;
+import appium.webdriver.devices.LogcatCollector;
+import appium.webdriver.metrics.CommandProfiler;
+import appium.webdriver.metrics.Timings;
 import appium.webdriver.reporting.AllureReportManager;
+import appium.webdriver.reporting.ScreenshotPipeline;
+import appium.webdriver.server.AppiumServerPool;
+import appium.webdriver.server.MockAppiumServer;
 import appium.webdriver.logging.TestLogger;
-import io.qameta.allure.Allure;
 import java.net.URL;
 import java.net.MalformedURLException;
-import java.time.Duration;
-import java.io.File;
-import java.io.ByteArrayInputStream;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import org.apache.commons.io.FileUtils;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class DriverManager {
 
-    protected static AndroidDriver driver;
-    private static AppiumDriverLocalService service;
-    private static final String APPIUM_SERVER_URL = System.getenv().getOrDefault("APPIUM_SERVER_URL", "http://127.0.0.1:4723");
-    private static final boolean USE_EXTERNAL_APPIUM = Boolean.parseBoolean(System.getenv().getOrDefault("USE_EXTERNAL_APPIUM", "false"));
+    // Sessions belong to devices: the thread holding a device's lease drives that device's session,
+    // so a device never has two UiAutomator2 sessions, whichever worker (or rerun thread) leases it
+    private static final ThreadLocal<AndroidDriver> threadDriver = new ThreadLocal<>();
+    private static final AtomicInteger nextWorkerIndex = new AtomicInteger(0);
+    private static final ThreadLocal<Integer> workerIndex = ThreadLocal.withInitial(nextWorkerIndex::getAndIncrement);
+    // Device serial of the session the calling thread drives
+    private static final ThreadLocal<String> sessionDevice = new ThreadLocal<>();
+    // Live session of every device, keyed by serial
+    private static final Map<String, AndroidDriver> sessions = new ConcurrentHashMap<>();
+    // Fixed slot per device for its Appium server and device ports, so they never clash between devices
+    private static final Map<String, Integer> deviceSlots = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextDeviceSlot = new AtomicInteger(0);
+    // appium.mock runs the suite against the in-process MockAppiumServer instead of Appium and a device
+    private static final boolean USE_MOCK_APPIUM = Config.getBoolean("appium.mock", false);
+    // Also settable as APPIUM_SERVER_URL / USE_EXTERNAL_APPIUM environment variables
+    private static final String APPIUM_SERVER_URL = Config.getString("appium.server.url", "http://127.0.0.1:4723");
+    private static final boolean USE_EXTERNAL_APPIUM = USE_MOCK_APPIUM || Config.getBoolean("use.external.appium", false);
 
     public static void startServer() {
-        // Only start local server if not using external Appium
+        // Only start local servers if not using external Appium
         if (USE_EXTERNAL_APPIUM) {
-            TestLogger.server("Using external Appium server at: " + APPIUM_SERVER_URL);
+            TestLogger.server("Using external Appium server at: " + getExternalServerUrl());
             return;
         }
         
-        if (service == null || !service.isRunning()) {
-            TestLogger.server("Starting local Appium server...");
-            service = new AppiumServiceBuilder()
-                    .withIPAddress("127.0.0.1")
-                    .usingPort(4723)
-                    .withArgument(() -> "--session-override")
-                    .withTimeout(Duration.ofSeconds(60))
-                    .build();
-            service.start();
-            TestLogger.pass("Local Appium server started");
-        }
+        // One server per worker so parallel sessions never share a Node process
+        long start = Timings.start();
+        AppiumServerPool.startAll(getWorkerCount());
+        Timings.record("lifecycle", "DriverManager.startServer", start);
     }
 
     public static void stopServer() {
-        // Only stop local server if we started it
-        if (!USE_EXTERNAL_APPIUM && service != null) {
-            TestLogger.server("Stopping local Appium server...");
-            service.stop();
-            TestLogger.pass("Local Appium server stopped");
+        // Only stop local servers if we started them
+        if (USE_MOCK_APPIUM) {
+            MockAppiumServer.stopShared();
+        } else if (!USE_EXTERNAL_APPIUM) {
+            TestLogger.server("Stopping local Appium server pool...");
+            long start = Timings.start();
+            AppiumServerPool.stopAll();
+            Timings.record("lifecycle", "DriverManager.stopServer", start);
+            TestLogger.pass("Local Appium server pool stopped");
         }
     }
 
     public static void createDriver() {
+        long start = Timings.start();
         try {
+            String deviceSerial = getWorkerDevice();
+            AndroidDriver driver = threadDriver.get();
+            if (driver != null && !deviceSerial.equals(sessionDevice.get())) {
+                // The old session stays with its device for whoever leases that device next
+                TestLogger.app("Worker moved from device " + sessionDevice.get() + " to " + deviceSerial);
+                detachDriver();
+                driver = null;
+            }
             if (driver == null) {
-                TestLogger.app("Creating new driver instance");
-                
-                // Start server if needed (will skip if using external)
-                if (!USE_EXTERNAL_APPIUM && (service == null || !service.isRunning())) {
-                    startServer();   
+                driver = sessions.get(deviceSerial);
+                if (driver != null) {
+                    TestLogger.app("Taking over the session of device " + deviceSerial);
+                    threadDriver.set(driver);
+                    sessionDevice.set(deviceSerial);
                 }
+            }
+            if (driver == null) {
+                int slot = deviceSlots.computeIfAbsent(deviceSerial, serial -> nextDeviceSlot.getAndIncrement());
+                int systemPort = AppiumServerPool.getSystemPort(slot);
+                TestLogger.app("Creating new driver instance for device " + deviceSerial
+                        + " (slot #" + slot + ", systemPort " + systemPort + ")");
                 
+                RunConfig config = RunConfig.get();
                 DesiredCapabilities caps = new DesiredCapabilities();
-                caps.setCapability("platformName", Utility.getProperty("platformName"));
-                caps.setCapability("appium:deviceName", Utility.getProperty("deviceName"));
-                caps.setCapability("appium:automationName", "UiAutomator2");
-                caps.setCapability("appium:appPackage", Utility.getProperty("appPackage"));
-                caps.setCapability("appium:appActivity", Utility.getProperty("appActivity"));
+                caps.setCapability("platformName", config.getPlatformName());
+                caps.setCapability("appium:deviceName", deviceSerial);
+                caps.setCapability("appium:udid", deviceSerial);
+                caps.setCapability("appium:systemPort", systemPort);
+                caps.setCapability("appium:chromedriverPort", AppiumServerPool.getChromedriverPort(slot));
+                caps.setCapability("appium:mjpegServerPort", AppiumServerPool.getMjpegServerPort(slot));
+                caps.setCapability("appium:automationName", config.getAutomationName());
+                caps.setCapability("appium:appPackage", config.getAppPackage());
+                caps.setCapability("appium:appActivity", config.getAppActivity());
                 
                 // Set app launch parameters
-                caps.setCapability("appium:noReset", true);
-                caps.setCapability("appium:forceAppLaunch", true);
+                caps.setCapability("appium:noReset", config.isNoReset());
+                caps.setCapability("appium:forceAppLaunch", config.isForceAppLaunch());
                 
                 // Connect to appropriate Appium server
                 URL appiumUrl;
                 try {
                     if (USE_EXTERNAL_APPIUM) {
-                        appiumUrl = new URL(APPIUM_SERVER_URL);
-                        TestLogger.server("Connecting to external Appium server: " + APPIUM_SERVER_URL);
+                        appiumUrl = new URL(getExternalServerUrl());
+                        TestLogger.server("Connecting to external Appium server: " + appiumUrl);
                     } else {
-                        appiumUrl = service.getUrl();
+                        // The device's own server (one session per server), started on demand if not running yet
+                        appiumUrl = AppiumServerPool.getUrl(slot);
                         TestLogger.server("Connecting to local Appium server: " + appiumUrl);
                     }
                 } catch (MalformedURLException e) {
-                    throw new RuntimeException("Invalid Appium server URL: " + APPIUM_SERVER_URL, e);
+                    throw new RuntimeException("Invalid Appium server URL: " + getExternalServerUrl(), e);
                 }
                 
-                driver = new AndroidDriver(appiumUrl, caps);
+                // Session commands go through the profiling executor (see CommandProfiler)
+                driver = new AndroidDriver(CommandProfiler.newExecutor(appiumUrl), caps);
+                threadDriver.set(driver);
+                sessionDevice.set(deviceSerial);
+                sessions.put(deviceSerial, driver);
+                LogcatCollector.start(deviceSerial, config.getAppPackage(), driver, !USE_EXTERNAL_APPIUM);
                 
                 Thread.sleep(500); // Reduced from 2000ms - driver is ready immediately
-                TestLogger.pass("Driver created successfully, app launched on: " + driver.currentActivity());
+                AppStateTracker.recordForeground(driver.currentActivity());
+                TestLogger.pass("Driver created successfully, app launched on: " + AppStateTracker.getActivity(driver));
             } else {
-                String appPackage = Utility.getProperty("appPackage");
+                String appPackage = RunConfig.get().getAppPackage();
                 boolean isAppRunning = false;
                 
                 try {
-                    isAppRunning = driver.isAppInstalled(appPackage) && 
-                                  (driver.queryAppState(appPackage).toString().equals("RUNNING_IN_FOREGROUND") || 
-                                   driver.queryAppState(appPackage).toString().equals("RUNNING_IN_BACKGROUND"));
+                    // One state query at most (NOT_INSTALLED covers isAppInstalled), none if restartApp just recorded it
+                    ApplicationState appState = AppStateTracker.getAppState(driver, appPackage);
+                    isAppRunning = appState == ApplicationState.RUNNING_IN_FOREGROUND
+                            || appState == ApplicationState.RUNNING_IN_BACKGROUND;
                 } catch (Exception e) {
                     TestLogger.warn("Could not determine app state: " + e.getMessage());
                     isAppRunning = false;
@@ -113,29 +155,47 @@ public class DriverManager {
                     TestLogger.app("App not running, activating app");
                     try {
                         driver.activateApp(appPackage);
+                        AppStateTracker.recordForeground();
                         Thread.sleep(500); // Reduced from 2000ms
-                        TestLogger.pass("App reactivated on: " + driver.currentActivity());
+                        TestLogger.pass("App reactivated on: " + AppStateTracker.getActivity(driver));
                     } catch (Exception e) {
                         TestLogger.fail("Failed to activate app, recreating driver: " + e.getMessage());
                         quitDriver();
                         createDriver();
                     }
                 } else {
-                    TestLogger.pass("Driver already exists and app is running on: " + driver.currentActivity());
+                    TestLogger.pass("Driver already exists and app is running on: " + AppStateTracker.getActivity(driver));
                 }
             }
         } catch (Exception e) {
             TestLogger.error("Error in createDriver", e);
             quitDriver();
             throw new RuntimeException("Failed to initialize driver: " + e.getMessage());
+        } finally {
+            Timings.record("lifecycle", "DriverManager.createDriver", start);
         }
     }
     
     public static boolean isDriverInitialized() {
-        return driver != null;
+        return threadDriver.get() != null;
+    }
+
+    /**
+     * Serial of the device the calling worker's session runs on, or null without a session.
+     */
+    public static String getSessionDevice() {
+        return sessionDevice.get();
     }
     
     public static WebDriver getDriver() {
+        return driver();
+    }
+
+    /**
+     * Returns the AndroidDriver bound to the calling worker thread.
+     */
+    protected static AndroidDriver driver() {
+        AndroidDriver driver = threadDriver.get();
         if (driver == null) {
             throw new IllegalStateException("Driver is not initialized! Call createDriver() first.");
         }
@@ -143,28 +203,105 @@ public class DriverManager {
     }
 
     public static void quitDriver() {
+        AndroidDriver driver = threadDriver.get();
         if (driver != null) {
             TestLogger.app("Quitting driver...");
-            driver.quit();
-            driver = null;
+            long start = Timings.start();
+            LogcatCollector.stop(sessionDevice.get());
+            try {
+                WaitFactory.evict(driver);
+                driver.quit();
+            } finally {
+                Timings.record("lifecycle", "DriverManager.quitDriver", start);
+                String device = sessionDevice.get();
+                if (device != null) {
+                    sessions.remove(device, driver);
+                }
+                detachDriver();
+            }
         }
     }
-    
+
+    /**
+     * Stops the calling thread from driving its device's session, which stays open for the next
+     * thread that leases the device. Call it before returning the device to the pool.
+     */
+    public static void releaseSession() {
+        detachDriver();
+    }
+
+    private static void detachDriver() {
+        threadDriver.remove();
+        sessionDevice.remove();
+        PageSnapshot.invalidate();
+        AppStateTracker.invalidate();
+    }
+
+    /**
+     * Quits the session of every device.
+     * Intended for suite teardown, where the worker threads may already be gone.
+     */
+    public static void quitAllDrivers() {
+        LogcatCollector.stopAll();
+        for (Map.Entry<String, AndroidDriver> entry : sessions.entrySet()) {
+            TestLogger.app("Quitting driver for device " + entry.getKey() + "...");
+            try {
+                WaitFactory.evict(entry.getValue());
+                entry.getValue().quit();
+            } catch (Exception e) {
+                TestLogger.warn("Failed to quit driver for device " + entry.getKey() + ": " + e.getMessage());
+            }
+        }
+        sessions.clear();
+        detachDriver();
+    }
+
+    /**
+     * Number of parallel workers the suite is configured for (parallel.workers, default 1).
+     */
+    public static int getWorkerCount() {
+        return Math.max(1, RunConfig.get().getWorkerCount());
+    }
+
+    // appium.server.url, or the shared mock server's URL (started on first use) in mock mode
+    private static String getExternalServerUrl() {
+        return USE_MOCK_APPIUM ? MockAppiumServer.getShared().getUrl().toString() : APPIUM_SERVER_URL;
+    }
+
+    /**
+     * Device serial for the calling worker: the device leased from DevicePool when there is one,
+     * otherwise a fixed slot from the comma separated deviceNames list, otherwise deviceName.
+     */
+    private static String getWorkerDevice() {
+        String leasedDevice = DevicePool.getLeasedDevice();
+        if (leasedDevice != null) {
+            return leasedDevice;
+        }
+        String deviceNames = Config.get("deviceNames");
+        if (deviceNames == null || deviceNames.trim().isEmpty()) {
+            return RunConfig.get().getDeviceName();
+        }
+        String[] serials = deviceNames.split(",");
+        return serials[workerIndex.get() % serials.length].trim();
+    }
+
     public static void restartApp() {
+        AndroidDriver driver = threadDriver.get();
         if (driver != null) {
-            String appPackage = Utility.getProperty("appPackage");
-            String appActivity = Utility.getProperty("appActivity");
+            String appPackage = RunConfig.get().getAppPackage();
+            String appActivity = RunConfig.get().getAppActivity();
+            long start = Timings.start();
             
             try {
                 boolean needsRestart = true;
                 
                 try {
-                    String appState = driver.queryAppState(appPackage).toString();
-                    String currentActivity = driver.currentActivity();
+                    ApplicationState appState = AppStateTracker.getAppState(driver, appPackage);
+                    String currentActivity = AppStateTracker.getActivity(driver);
                     
                     TestLogger.debug("Current app state: " + appState + ", activity: " + currentActivity);
                     
-                    if (appState.equals("RUNNING_IN_FOREGROUND") && 
+                    if (appState == ApplicationState.RUNNING_IN_FOREGROUND && 
                        (currentActivity.contains("LoginActivity") || 
                         currentActivity.contains("DeskStartupActivity"))) {
                         TestLogger.pass("App is already on correct screen, skipping restart");
@@ -176,6 +313,8 @@ public class DriverManager {
                 
                 if (needsRestart) {
                     TestLogger.app("Resetting app state for next test...");
+                    PageSnapshot.invalidate();
+                    AppStateTracker.invalidate();
                     
                     try {
                         Map<String, Object> args = new HashMap<>();
@@ -189,18 +328,21 @@ public class DriverManager {
                         if (!currentActivity.contains("LoginActivity") && !currentActivity.contains("DeskStartupActivity")) {
                             throw new Exception("Gentle reset failed, activity is: " + currentActivity);
                         }
+                        AppStateTracker.recordForeground(currentActivity);
                         
                         TestLogger.pass("App state reset successfully, now on: " + currentActivity);
                     } catch (Exception e) {
                         TestLogger.warn("Gentle reset failed, using full app restart: " + e.getMessage());
                         
                         driver.terminateApp(appPackage);
+                        AppStateTracker.recordTerminated();
                         Thread.sleep(500); // Reduced from 1000ms
                         
                         driver.activateApp(appPackage);
+                        AppStateTracker.recordForeground();
                         Thread.sleep(1000); // Reduced from 3000ms
                         
-                        TestLogger.pass("App restarted via terminate/activate, now on: " + driver.currentActivity());
+                        TestLogger.pass("App restarted via terminate/activate, now on: " + AppStateTracker.getActivity(driver));
                     }
                 }
             } catch (Exception e) {
@@ -209,6 +351,7 @@ public class DriverManager {
                 try {
                     TestLogger.app("Attempting basic recovery...");
                     driver.activateApp(appPackage);
+                    AppStateTracker.recordForeground();
                     Thread.sleep(500); // Reduced from 2000ms
                     TestLogger.pass("Basic recovery successful");
                 } catch (Exception e2) {
@@ -220,43 +363,43 @@ public class DriverManager {
                         throw new RuntimeException("Complete restart failure: " + e3.getMessage());
                     }
                 }
+            } finally {
+                Timings.record("lifecycle", "DriverManager.restartApp", start);
             }
         } else {
             throw new IllegalStateException("Driver is not initialized! Cannot restart app.");
         }
     }
     
-    public static String captureScreenshot(String name) {
+    /**
+     * Captures one screenshot (a single device round-trip) and queues it for
+     * target/screenshots and the Allure report on the background screenshot writer,
+     * which downscales and re-encodes it (see ScreenshotPipeline).
+     * @return the captured PNG bytes, or an empty array if the capture failed
+     */
+    public static byte[] captureScreenshot(String name) {
+        AndroidDriver driver = threadDriver.get();
         if (driver == null) {
             throw new IllegalStateException("Driver is not initialized! Cannot capture screenshot.");
         }
         
+        long start = Timings.start();
         try {
-            File screenshotsDir = new File("target/screenshots");
-            if (!screenshotsDir.exists()) {
-                screenshotsDir.mkdirs();
-            }
-            
-            String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-            String sanitizedName = name.replaceAll("[^a-zA-Z0-9-_\\.]", "_");
-            String fileName = sanitizedName + "_" + timestamp + ".png";
-            String filePath = "target/screenshots/" + fileName;
-            
-            File scrFile = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-            FileUtils.copyFile(scrFile, new File(filePath));
-            
-            // Get screenshot bytes for embedding in Allure report
             byte[] screenshotBytes = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
-            Allure.addAttachment("📸 Screenshot: " + name, "image/png", new ByteArrayInputStream(screenshotBytes), ".png");
-            
+            Timings.record("lifecycle", "DriverManager.captureScreenshot", start);
+            ScreenshotPipeline.submit(name, screenshotBytes);
             TestLogger.screenshot(name);
-            
-            // Return Base64 for any other uses
-            String base64Screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
-            return base64Screenshot;
+            return screenshotBytes;
         } catch (Exception e) {
             TestLogger.warn("Failed to capture screenshot: " + e.getMessage());
-            return "";
+            return new byte[0];
         }
     }
+
+    /**
+     * Same as captureScreenshot, for callers that need the image Base64 encoded.
+     */
+    public static String captureScreenshotAsBase64(String name) {
+        return Base64.getEncoder().encodeToString(captureScreenshot(name));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+package appium.webdriver.extensions;
+
+import appium.webdriver.config.Config;
+import appium.webdriver.logging.TestLogger;
+import appium.webdriver.metrics.Timings;
+import appium.webdriver.reporting.ScreenshotPipeline;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Frame Recorder - a rolling buffer of the last screens before a failure.
+ *
+ * With screenshot.mode=failure, every click and text entry (Utility.clickElement, Utility.sendKeys,
+ * TextEntry) records the screen it is about to act on into a per-thread ring of the last
+ * screenshot.frames captures. The test thread only takes the screenshot; a background thread
+ * downscales it to screenshot.frames.width and encodes it right away, so the ring holds small
+ * encoded frames, never full-resolution PNGs. A frame is skipped when the previous one of the
+ * thread is younger than screenshot.frames.interval.ms. Nothing is written for a passing scenario
+ * (Hooks drops the ring), while a failed one gets its frames attached in order, oldest first.
+ * The default screenshot.mode=always keeps the single end-of-scenario screenshot and no ring.
+ */
+public class FrameRecorder {
+
+    private static final boolean ON_FAILURE_ONLY = "failure".equalsIgnoreCase(Config.getString("screenshot.mode", "always"));
+    private static final int CAPACITY = Config.getInt("screenshot.frames", 8);
+    private static final int FRAME_WIDTH = Config.getInt("screenshot.frames.width", 360);
+    private static final long MIN_INTERVAL_MILLIS = Config.getLong("screenshot.frames.interval.ms", 500);
+    private static final long ENCODE_TIMEOUT_SECONDS = 10;
+
+    private static final ThreadLocal<Deque<Frame>> frames = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final ExecutorService encoder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "frame-encoder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * True when screenshots are only kept for failed scenarios (screenshot.mode=failure).
+     */
+    public static boolean isFailureOnly() {
+        return ON_FAILURE_ONLY;
+    }
+
+    /**
+     * Captures the current screen into the calling thread's ring before the action; never fails the caller.
+     */
+    public static void record(String action) {
+        if (!ON_FAILURE_ONLY || CAPACITY <= 0 || !DriverManager.isDriverInitialized()) {
+            return;
+        }
+        Deque<Frame> ring = frames.get();
+        long now = System.currentTimeMillis();
+        if (!ring.isEmpty() && now - ring.peekLast().takenAt < MIN_INTERVAL_MILLIS) {
+            return;
+        }
+        long start = Timings.start();
+        try {
+            byte[] png = ((TakesScreenshot) DriverManager.getDriver()).getScreenshotAs(OutputType.BYTES);
+            if (ring.size() >= CAPACITY) {
+                ring.removeFirst().image.cancel(false);
+            }
+            ring.addLast(new Frame(action, now, encoder.submit(() -> ScreenshotPipeline.encode(png, FRAME_WIDTH))));
+        } catch (Exception e) {
+            TestLogger.debug("Frame not recorded for '" + action + "': " + e.getMessage());
+        } finally {
+            Timings.record("lifecycle", "FrameRecorder.record", start);
+        }
+    }
+
+    /**
+     * Attaches the recorded frames of the failed scenario, oldest first, and empties the ring.
+     */
+    public static void persist(String scenarioName) {
+        Deque<Frame> ring = frames.get();
+        if (ring.isEmpty()) {
+            return;
+        }
+        TestLogger.info("Attaching the last " + ring.size() + " frame(s) before the failure");
+        SimpleDateFormat time = new SimpleDateFormat("HH:mm:ss.SSS", Locale.ROOT);
+        int total = ring.size();
+        int index = 1;
+        for (Frame frame : ring) {
+            String name = String.format(Locale.ROOT, "%s frame %d of %d at %s before %s",
+                    scenarioName, index++, total, time.format(new Date(frame.takenAt)), frame.action);
+            try {
+                ScreenshotPipeline.submitEncoded(name, frame.image.get(ENCODE_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            } catch (Exception e) {
+                TestLogger.debug("Frame '" + name + "' not attached: " + e.getMessage());
+            }
+        }
+        ring.clear();
+    }
+
+    /**
+     * Drops the calling thread's frames without writing them.
+     */
+    public static void discard() {
+        Deque<Frame> ring = frames.get();
+        for (Frame frame : ring) {
+            frame.image.cancel(false);
+        }
+        ring.clear();
+    }
+
+    private static class Frame {
+
+        private final String action;
+        private final long takenAt;
+        // Downscaled, encoded screenshot; the full-resolution capture is dropped once it is encoded
+        private final Future<byte[]> image;
+
+        private Frame(String action, long takenAt, Future<byte[]> image) {
+            this.action = action;
+            this.takenAt = takenAt;
+            this.image = image;
+        }
+    }
+}
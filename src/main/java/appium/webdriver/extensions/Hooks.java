@@ -1,40 +1,66 @@
 package appium.webdriver.extensions;
+import appium.webdriver.config.Config;
+import appium.webdriver.config.RunConfig;
+import appium.webdriver.devices.DevicePool;
+import appium.webdriver.devices.LogcatCollector;
+import appium.webdriver.metrics.CommandProfiler;
 import appium.webdriver.reporting.AllureReportManager;
+import appium.webdriver.reporting.ScreenshotPipeline;
 import appium.webdriver.logging.TestLogger;
+import appium.webdriver.scheduling.ScenarioHistory;
+import appium.webdriver.scheduling.ScenarioReruns;
 import io.cucumber.java.*;
 import io.qameta.allure.Allure;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class Hooks {
-   private static boolean isLastTest = false;
    private static final AtomicInteger scenarioCounter = new AtomicInteger(0);
    private static final AtomicInteger completedScenarios = new AtomicInteger(0);
-   private static boolean appStarted = false;
+   private static final AtomicBoolean appStarted = new AtomicBoolean(false);
+   // Start of the worker's current scenario, for the scenario history
+   private static final ThreadLocal<Long> scenarioStart = new ThreadLocal<>();
    
    // Scenario name that requires notification handling
    private static final String LOGIN_SCENARIO = "CUMA-C226538";
    
+   // Features whose scenarios start from a logged-in screen and can reuse the previous session
+   private static final String[] WARM_SESSION_FEATURES = Config.getString("session.warm.features", "").split("\\s*,\\s*");
+   
    @BeforeAll
    public static void beforeAll() {
        TestLogger.suiteStart("Eptura Engage Android Tests");
+       // Validate the configuration before any server or device work so a bad config fails fast
+       TestLogger.info("Configuration: " + RunConfig.load());
        AllureReportManager.addEnvironmentInfo();
+       DevicePool.initialize();
        DriverManager.startServer();
        scenarioCounter.set(0);
        completedScenarios.set(0);
-       appStarted = false;
+       appStarted.set(false);
    }
    
    @Before
    public void beforeScenario(Scenario scenario) throws Exception {
-       int currentScenario = scenarioCounter.incrementAndGet();
+       // Reruns repeat a scenario already counted, so only first attempts count
+       int currentScenario = ScenarioReruns.isRerun() ? scenarioCounter.get() : scenarioCounter.incrementAndGet();
        TestLogger.scenarioStart(scenario.getName());
        TestLogger.info("Starting scenario #" + currentScenario);
+       scenarioStart.set(System.currentTimeMillis());
        
+       CommandProfiler.startScenario(scenario.getName());
        try {
+           DevicePool.lease(scenario.getName());
            DriverManager.createDriver();
+           LogcatCollector.startScenario(DriverManager.getSessionDevice());
            
-           if (!appStarted) {
-               appStarted = true;
+           if (ScenarioReruns.isRerun()) {
+               // The failed attempt may have left the app anywhere; start the rerun from the entry screen
+               TestLogger.info("Rerun #" + ScenarioReruns.getAttempt() + " of a failed scenario, resetting app state");
+               DriverManager.restartApp();
+           }
+           
+           if (appStarted.compareAndSet(false, true)) {
                TestLogger.app("App started for the first time");
            }
            
@@ -48,6 +74,8 @@ public class Hooks {
            
        } catch (Exception e) {
            TestLogger.error("Driver initialization failed", e);
+           DriverManager.releaseSession();
+           DevicePool.release(true);
            Allure.addAttachment("Error Details", "text/plain", e.getMessage());
            scenario.log("Driver initialization failed: " + e.getMessage());
            scenario.attach(e.getMessage().getBytes(), "text/plain", "Error Details");
@@ -55,17 +83,28 @@ public class Hooks {
        }
    }
    
+   @AfterStep
+   public void afterStep() {
+       // Logcat is polled from the scenario's thread, between its commands
+       LogcatCollector.poll(DriverManager.getSessionDevice());
+   }
+   
    @After
    public void afterScenario(Scenario scenario) {
        try {
-           int completed = completedScenarios.incrementAndGet();
-           boolean isActuallyLastScenario = completed >= scenarioCounter.get() || isLastTest;
-           
-           TestLogger.info("Completed scenario #" + completed + " out of " + scenarioCounter.get());
+           if (!ScenarioReruns.isRerun()) {
+               int completed = completedScenarios.incrementAndGet();
+               TestLogger.info("Completed scenario #" + completed + " out of " + scenarioCounter.get());
+           }
            
            if (DriverManager.isDriverInitialized()) {
-               String screenshotName = scenario.isFailed() ? "Failed_" + scenario.getName() : "Passed_" + scenario.getName();
-               DriverManager.captureScreenshot(screenshotName);
+               if (scenario.isFailed()) {
+                   LogcatCollector.attach(DriverManager.getSessionDevice(), scenario.getName());
+                   FrameRecorder.persist(scenario.getName());
+                   DriverManager.captureScreenshot("Failed_" + scenario.getName());
+               } else if (!FrameRecorder.isFailureOnly()) {
+                   DriverManager.captureScreenshot("Passed_" + scenario.getName());
+               }
                
                if (scenario.isFailed()) {
                    TestLogger.scenarioEnd(scenario.getName(), false);
@@ -73,11 +112,14 @@ public class Hooks {
                    TestLogger.scenarioEnd(scenario.getName(), true);
                }
                
-               if (!isActuallyLastScenario) {
+               // Whether another scenario follows on this worker is not known here (other workers may still
+               // be starting theirs), so the app is always reset; afterAll quits the sessions at the end
+               if (!scenario.isFailed() && isWarmSessionScenario(scenario) && SessionCheckpoint.isMarked()) {
+                   // The next scenario validates the logged-in session itself and only logs in again if needed
+                   TestLogger.info("Keeping logged-in session for next test, skipping app restart");
+               } else {
                    TestLogger.info("Preparing app for next test...");
                    restartAppWithRetry(1);
-               } else {
-                   TestLogger.info("Final test completed, skipping app restart");
                }
            } else if (!scenario.isFailed()) {
                TestLogger.fail("Scenario Failed: Driver was never initialized");
@@ -91,6 +133,13 @@ public class Hooks {
            } catch (Exception e2) {
                TestLogger.fail("Final cleanup failed: " + e2.getMessage());
            }
+       } finally {
+           FrameRecorder.discard();
+           // The session stays with the device; the next lessee of the device takes it over
+           DriverManager.releaseSession();
+           DevicePool.release(scenario.isFailed());
+           CommandProfiler.endScenario();
+           recordHistory(scenario);
        }
    }
 
@@ -120,11 +169,24 @@ public class Hooks {
        }
    }
 
-   public static void setLastTest(boolean isLast) {
-       isLastTest = isLast;
-       if (isLast) {
-           TestLogger.info("Final test execution phase marked");
+   private static void recordHistory(Scenario scenario) {
+       Long start = scenarioStart.get();
+       scenarioStart.remove();
+       if (start != null) {
+           long now = System.currentTimeMillis();
+           ScenarioHistory.shared().record(ScenarioHistory.key(scenario.getUri().toString(), scenario.getName()),
+                   now - start, !scenario.isFailed(), now);
+       }
+   }
+
+   private static boolean isWarmSessionScenario(Scenario scenario) {
+       String uri = scenario.getUri().toString();
+       for (String feature : WARM_SESSION_FEATURES) {
+           if (!feature.isEmpty() && uri.endsWith(feature)) {
+               return true;
+           }
        }
+       return false;
    }
 
    @AfterAll
@@ -132,11 +194,15 @@ public class Hooks {
        scenarioCounter.set(0);
        completedScenarios.set(0);
        
-       TestLogger.info("Cleaning up resources and quitting driver");
-       if (DriverManager.isDriverInitialized()) {
-           DriverManager.quitDriver();
-       }
+       TestLogger.info("Cleaning up resources and quitting drivers");
+       DriverManager.quitAllDrivers();
        DriverManager.stopServer();
+       DevicePool.logUtilization();
+       CommandProfiler.report();
+       ScenarioHistory.shared().save();
+       ScenarioReruns.report();
+       ScreenshotPipeline.awaitPending(30);
        TestLogger.suiteEnd("Eptura Engage Android Tests", completedScenarios.get(), 0);
+       TestLogger.flush();
    }
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+package appium.webdriver.extensions;
+
+import appium.webdriver.config.Config;
+import appium.webdriver.logging.TestLogger;
+import org.openqa.selenium.By;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Interrupt Watcher - declarative handling of system and app popups.
+ *
+ * A rule says "if the trigger is on screen, click the action". All rules are evaluated
+ * against one PageSnapshot, so checking for every known dialog costs a single page source
+ * instead of a timed presence wait per dialog. Rules run:
+ *   - explicitly via check(), e.g. after launching the app or logging in,
+ *   - on every poll of waitFor(), together with the element being waited for,
+ *   - when a Utility lookup times out, after which the lookup is retried once.
+ * Set interrupt.watcher.enabled=false to turn off the automatic retry in Utility lookups.
+ *
+ * Usage:
+ *   InterruptWatcher.register("Location permission", By.id("...:id/permission_allow_foreground_only_button"));
+ *   InterruptWatcher.waitFor(homeHeader, 30);
+ */
+public class InterruptWatcher {
+
+    private static final int MAX_PASSES = 5;
+    private static final boolean ENABLED = Config.getBoolean("interrupt.watcher.enabled", true);
+
+    private static final List<Rule> rules = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<Boolean> handling = ThreadLocal.withInitial(() -> false);
+
+    static {
+        register("Notification permission", By.id("com.android.permissioncontroller:id/permission_allow_button"));
+        register("Automatic Check-In", By.id("com.condecosoftware.condeco:id/buttonCancelAutomaticCheckIn"));
+        // ANR dialog: prefer "Wait", fall back to "Close"
+        register("ANR dialog (wait)", By.id("android:id/aerr_wait"));
+        register("ANR dialog (close)", By.id("android:id/aerr_close"));
+    }
+
+    /**
+     * Registers a rule that clicks the trigger itself when it is present.
+     */
+    public static void register(String name, By trigger) {
+        register(name, trigger, trigger);
+    }
+
+    /**
+     * Registers a rule that clicks the action when the trigger is present. Rules are checked
+     * in registration order; a rule with the same name replaces the earlier one.
+     */
+    public static void register(String name, By trigger, By action) {
+        rules.removeIf(rule -> rule.name.equals(name));
+        rules.add(new Rule(name, trigger, action));
+    }
+
+    public static void unregister(String name) {
+        rules.removeIf(rule -> rule.name.equals(name));
+    }
+
+    /**
+     * Dismisses whatever registered popups are on screen right now, one page source per pass.
+     * @return the number of popups dismissed
+     */
+    public static int check() {
+        if (handling.get()) {
+            return 0;
+        }
+        handling.set(true);
+        try {
+            int handled = 0;
+            for (int pass = 0; pass < MAX_PASSES; pass++) {
+                if (!handleFirstMatch(PageSnapshot.refresh())) {
+                    break;
+                }
+                handled++;
+            }
+            return handled;
+        } catch (Exception e) {
+            TestLogger.debug("Interrupt check failed: " + e.getMessage());
+            return 0;
+        } finally {
+            handling.set(false);
+        }
+    }
+
+    /**
+     * Waits for the target while dismissing popups in between: each poll takes one page source
+     * and evaluates the target and all rules against it.
+     * @return true if the target appeared within the timeout
+     */
+    public static boolean waitFor(By target, double timeoutSeconds) {
+        return WaitEngine.waitUntil(target + " (watching interrupts)", timeoutSeconds, () -> {
+            PageSnapshot snapshot = PageSnapshot.refresh();
+            if (isPresent(snapshot, target)) {
+                return true;
+            }
+            handleFirstMatch(snapshot);
+            return false;
+        });
+    }
+
+    static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    private static boolean handleFirstMatch(PageSnapshot snapshot) {
+        for (Rule rule : rules) {
+            if (snapshot.isPresent(rule.trigger)) {
+                try {
+                    DriverManager.getDriver().findElement(rule.action).click();
+                    TestLogger.pass("Dismissed interrupt: " + rule.name);
+                    return true;
+                } catch (Exception e) {
+                    TestLogger.warn("Interrupt '" + rule.name + "' detected but could not be dismissed: " + e.getMessage());
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isPresent(PageSnapshot snapshot, By target) {
+        try {
+            return snapshot.isPresent(target);
+        } catch (IllegalArgumentException e) {
+            // Locator the snapshot cannot evaluate (e.g. UiAutomator), ask the device
+            return !DriverManager.getDriver().findElements(target).isEmpty();
+        }
+    }
+
+    private static class Rule {
+        private final String name;
+        private final By trigger;
+        private final By action;
+
+        private Rule(String name, By trigger, By action) {
+            this.name = name;
+            this.trigger = trigger;
+            this.action = action;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package appium.webdriver.extensions;
+
+import appium.webdriver.logging.TestLogger;
+import org.openqa.selenium.By;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathFactory;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Page Snapshot - answers many presence/text queries from a single getPageSource() call.
+ *
+ * The page source is parsed once and indexed by resource-id, class and text; id, class name,
+ * accessibility id and XPath locators are then resolved locally without a device round-trip.
+ * The snapshot is kept per thread and dropped by the session's command executor before any
+ * command that may change the screen (see CommandProfiler), so the next current() call reads
+ * the screen again. Screens that change on their own (a dialog popping up) need refresh().
+ *
+ * Usage:
+ *   PageSnapshot snapshot = PageSnapshot.current();
+ *   if (snapshot.isPresent(okButton)) { Utility.clickElement(okButton, 2); }
+ */
+public class PageSnapshot {
+
+    private static final ThreadLocal<PageSnapshot> snapshots = new ThreadLocal<>();
+
+    private final Document document;
+    private final List<Node> nodes = new ArrayList<>();
+    private final Map<String, List<Node>> byResourceId = new HashMap<>();
+    private final Map<String, List<Node>> byClass = new HashMap<>();
+    private final Map<String, List<Node>> byText = new HashMap<>();
+
+    private PageSnapshot(String pageSource) {
+        this.document = parse(pageSource);
+        NodeList elements = document.getElementsByTagName("*");
+        for (int i = 0; i < elements.getLength(); i++) {
+            Node node = new Node((Element) elements.item(i));
+            nodes.add(node);
+            index(byResourceId, node.getResourceId(), node);
+            index(byClass, node.getClassName(), node);
+            index(byText, node.getText(), node);
+        }
+    }
+
+    /**
+     * Snapshot of the current screen for the calling thread, fetching the page source only
+     * if there was an interaction since the last one.
+     */
+    public static PageSnapshot current() {
+        PageSnapshot snapshot = snapshots.get();
+        if (snapshot == null) {
+            snapshot = refresh();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Re-reads the page source regardless of the cached snapshot.
+     */
+    public static PageSnapshot refresh() {
+        long start = System.nanoTime();
+        PageSnapshot snapshot = new PageSnapshot(DriverManager.getDriver().getPageSource());
+        snapshots.set(snapshot);
+        TestLogger.debug("Page snapshot taken (" + snapshot.nodes.size() + " nodes, "
+                + (System.nanoTime() - start) / 1_000_000 + "ms)");
+        return snapshot;
+    }
+
+    /**
+     * Snapshot of a page source obtained elsewhere; not cached for the calling thread.
+     */
+    public static PageSnapshot of(String pageSource) {
+        return new PageSnapshot(pageSource);
+    }
+
+    /**
+     * Drops the calling thread's snapshot; call after anything that may change the screen.
+     */
+    public static void invalidate() {
+        snapshots.remove();
+    }
+
+    public boolean isPresent(By locator) {
+        return find(locator) != null;
+    }
+
+    /**
+     * First node matching the locator, or null.
+     */
+    public Node find(By locator) {
+        List<Node> matches = findAll(locator);
+        return matches.isEmpty() ? null : matches.get(0);
+    }
+
+    /**
+     * First node matching any of the candidates, checked in order, or null.
+     */
+    public Node findFirst(By... candidates) {
+        for (By candidate : candidates) {
+            Node node = find(candidate);
+            if (node != null) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Nodes matching an id, class name, accessibility id or XPath locator.
+     * @throws IllegalArgumentException for locator strategies that need the device (e.g. UiAutomator)
+     */
+    public List<Node> findAll(By locator) {
+        if (!(locator instanceof By.Remotable)) {
+            throw new IllegalArgumentException("Locator not supported by page snapshot: " + locator);
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        String value = String.valueOf(parameters.value());
+        switch (parameters.using()) {
+            case "id":
+                return findByResourceId(value);
+            case "class name":
+                return byClass.getOrDefault(value, Collections.emptyList());
+            case "accessibility id":
+                List<Node> described = new ArrayList<>();
+                for (Node node : nodes) {
+                    if (value.equals(node.getContentDescription())) {
+                        described.add(node);
+                    }
+                }
+                return described;
+            case "xpath":
+                return findByXPath(value);
+            default:
+                throw new IllegalArgumentException("Locator not supported by page snapshot: " + locator);
+        }
+    }
+
+    /**
+     * Nodes whose resource-id is the given one; a bare name matches any package's ":id/name".
+     */
+    public List<Node> findByResourceId(String resourceId) {
+        if (resourceId.contains(":id/")) {
+            return byResourceId.getOrDefault(resourceId, Collections.emptyList());
+        }
+        List<Node> matches = new ArrayList<>();
+        for (Map.Entry<String, List<Node>> entry : byResourceId.entrySet()) {
+            if (entry.getKey().endsWith(":id/" + resourceId)) {
+                matches.addAll(entry.getValue());
+            }
+        }
+        return matches;
+    }
+
+    public List<Node> findByText(String text) {
+        return byText.getOrDefault(text, Collections.emptyList());
+    }
+
+    /**
+     * First node whose text contains any of the fragments, ignoring case, or null.
+     */
+    public Node findByTextContaining(String... fragments) {
+        for (Node node : nodes) {
+            String text = node.getText();
+            if (text == null || text.isEmpty()) {
+                continue;
+            }
+            String lowerText = text.toLowerCase(Locale.ROOT);
+            for (String fragment : fragments) {
+                if (lowerText.contains(fragment.toLowerCase(Locale.ROOT))) {
+                    return node;
+                }
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    private List<Node> findByXPath(String expression) {
+        try {
+            NodeList matches = (NodeList) XPathFactory.newInstance().newXPath()
+                    .evaluate(expression, document, XPathConstants.NODESET);
+            List<Node> result = new ArrayList<>();
+            for (int i = 0; i < matches.getLength(); i++) {
+                if (matches.item(i) instanceof Element) {
+                    result.add(new Node((Element) matches.item(i)));
+                }
+            }
+            return result;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid XPath for page snapshot: " + expression, e);
+        }
+    }
+
+    private static void index(Map<String, List<Node>> index, String key, Node node) {
+        if (key != null && !key.isEmpty()) {
+            index.computeIfAbsent(key, k -> new ArrayList<>()).add(node);
+        }
+    }
+
+    private static Document parse(String pageSource) {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            return factory.newDocumentBuilder().parse(new InputSource(new StringReader(pageSource)));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to parse page source: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * A single element of the snapshot.
+     */
+    public static class Node {
+
+        private final Element element;
+
+        private Node(Element element) {
+            this.element = element;
+        }
+
+        public String getAttribute(String name) {
+            return element.hasAttribute(name) ? element.getAttribute(name) : null;
+        }
+
+        public String getResourceId() {
+            return getAttribute("resource-id");
+        }
+
+        public String getClassName() {
+            String className = getAttribute("class");
+            return className != null ? className : element.getTagName();
+        }
+
+        public String getText() {
+            return getAttribute("text");
+        }
+
+        public String getContentDescription() {
+            return getAttribute("content-desc");
+        }
+
+        @Override
+        public String toString() {
+            return getClassName() + (getResourceId() != null ? "[" + getResourceId() + "]" : "");
+        }
+    }
+}
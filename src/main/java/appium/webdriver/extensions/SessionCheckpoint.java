@@ -0,0 +1,83 @@
+package appium.webdriver.extensions;
+
+import appium.webdriver.config.Config;
+import appium.webdriver.logging.TestLogger;
+import org.openqa.selenium.By;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Session Checkpoint - lets scenarios reuse a logged-in app instead of logging in again.
+ *
+ * A successful login marks the device as logged in for that user; a logout (or anything that
+ * clears app data) invalidates it. The app keeps its session across scenarios (noReset), so a
+ * scenario that only needs "some logged-in screen" checks isValid() first and skips the login
+ * flow when the checkpoint still holds. The check costs one page source, plus a back press per
+ * level when a previous scenario left an overlay open (session.restore.back.presses, default 2).
+ */
+public class SessionCheckpoint {
+
+    private static final int MAX_BACK_PRESSES = Config.getInt("session.restore.back.presses", 2);
+
+    // Device serial -> logged-in user
+    private static final Map<String, String> checkpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Records that the calling worker's device is logged in as the given user.
+     */
+    public static void markLoggedIn(String user) {
+        String device = DriverManager.getSessionDevice();
+        if (device != null && user != null) {
+            checkpoints.put(device, user);
+            TestLogger.debug("Session checkpoint set for " + user + " on " + device);
+        }
+    }
+
+    /**
+     * Drops the checkpoint of the calling worker's device, e.g. after a logout.
+     */
+    public static void invalidate() {
+        String device = DriverManager.getSessionDevice();
+        if (device != null && checkpoints.remove(device) != null) {
+            TestLogger.debug("Session checkpoint cleared on " + device);
+        }
+    }
+
+    /**
+     * Whether the calling worker's device has a checkpoint for any user.
+     */
+    public static boolean isMarked() {
+        String device = DriverManager.getSessionDevice();
+        return device != null && checkpoints.containsKey(device);
+    }
+
+    /**
+     * Checks that the device is still logged in as the user and on a screen showing one of the
+     * home markers, backing out of leftover overlays if needed. Invalidates the checkpoint if not.
+     */
+    public static boolean isValid(String user, By... homeMarkers) {
+        String device = DriverManager.getSessionDevice();
+        if (device == null || user == null || !user.equals(checkpoints.get(device))) {
+            return false;
+        }
+        try {
+            for (int press = 0; press <= MAX_BACK_PRESSES; press++) {
+                if (PageSnapshot.refresh().findFirst(homeMarkers) != null) {
+                    TestLogger.pass("Reusing logged-in session of " + user
+                            + (press > 0 ? " (after " + press + " back press(es))" : ""));
+                    return true;
+                }
+                if (press < MAX_BACK_PRESSES) {
+                    DriverManager.getDriver().navigate().back();
+                    Utility.isAnyElementPresent(2, homeMarkers);
+                }
+            }
+        } catch (Exception e) {
+            TestLogger.debug("Session checkpoint check failed: " + e.getMessage());
+        }
+        TestLogger.info("Logged-in session could not be reused, falling back to login");
+        checkpoints.remove(device);
+        return false;
+    }
+}
@@ -0,0 +1,155 @@
+package appium.webdriver.extensions;
+
+import appium.webdriver.devices.Adb;
+import appium.webdriver.logging.TestLogger;
+import appium.webdriver.metrics.Timings;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.RemoteWebElement;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Text Entry - sets and clears text fields in as few device round-trips as possible.
+ *
+ * setText() replaces the field's value with a single "mobile: replaceElementValue" command and
+ * verifies it with a single read of the text attribute; only when that read does not match does it
+ * fall back to clear + sendKeys, and then to one "adb shell input text" call on the session's device
+ * (not for text containing %, which "input text" cannot type literally).
+ * Masked fields (passwords) are verified by length, as the text attribute only shows mask characters.
+ * A field showing its hint reports the hint as its text, so callers pass the hint to tell it from a value.
+ *
+ * Usage:
+ *   if (!TextEntry.setText(usernameField, userName, "Username")) { ... }
+ */
+public class TextEntry {
+
+    private static final int KEYCODE_A = 29;
+    private static final int KEYCODE_DEL = 67;
+    private static final int META_CTRL_ON = 0x1000;
+
+    /**
+     * Replaces the field's text and verifies it with one read.
+     * @param hint the field's hint text, or null
+     * @return true if the field shows the text (or a mask of the same length) afterwards
+     */
+    public static boolean setText(WebElement field, String text, String hint) {
+        FrameRecorder.record("setText " + (hint != null ? hint : "field"));
+        long start = Timings.start();
+        try {
+            try {
+                script("mobile: replaceElementValue", Map.of("elementId", elementId(field), "text", text));
+                if (hasText(field, text, hint)) {
+                    return true;
+                }
+                TestLogger.debug("replaceElementValue not verified, retrying with clear + sendKeys");
+            } catch (RuntimeException e) {
+                TestLogger.debug("replaceElementValue failed (" + e.getMessage() + "), retrying with clear + sendKeys");
+            }
+
+            try {
+                field.clear();
+                field.sendKeys(text);
+                if (hasText(field, text, hint)) {
+                    return true;
+                }
+            } catch (RuntimeException e) {
+                TestLogger.debug("sendKeys failed: " + e.getMessage());
+            }
+
+            return setTextWithAdb(field, text, hint);
+        } finally {
+            Timings.record("input", "TextEntry.setText", start);
+        }
+    }
+
+    /**
+     * Empties the field and verifies it with one read; falls back to select-all + delete.
+     * @param hint the field's hint text, or null
+     * @return true if the field is empty (or shows its hint) afterwards
+     */
+    public static boolean clear(WebElement field, String hint) {
+        FrameRecorder.record("clear " + (hint != null ? hint : "field"));
+        long start = Timings.start();
+        try {
+            field.clear();
+            if (isEmpty(field, hint)) {
+                return true;
+            }
+            TestLogger.debug("clear() not verified, selecting all and deleting");
+            field.click();
+            script("mobile: pressKey", Map.of("keycode", KEYCODE_A, "metastate", META_CTRL_ON));
+            script("mobile: pressKey", Map.of("keycode", KEYCODE_DEL));
+            return isEmpty(field, hint);
+        } catch (RuntimeException e) {
+            TestLogger.debug("Clearing field failed: " + e.getMessage());
+            return false;
+        } finally {
+            Timings.record("input", "TextEntry.clear", start);
+        }
+    }
+
+    private static boolean setTextWithAdb(WebElement field, String text, String hint) {
+        String serial = DriverManager.getSessionDevice();
+        if (serial == null || !Adb.isAvailable()) {
+            return false;
+        }
+        if (text.indexOf('%') >= 0) {
+            // "input text" reads %s as a space and has no escape for a literal %
+            TestLogger.debug("Not typing with adb input: the text contains '%'");
+            return false;
+        }
+        TestLogger.debug("Typing with adb input on " + serial);
+        try {
+            field.clear();
+            field.click();
+            Adb.runOnDevice(serial, 10000, "shell", "input text " + escapeForInput(text));
+            return hasText(field, text, hint);
+        } catch (IOException | RuntimeException e) {
+            TestLogger.debug("adb input failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean hasText(WebElement field, String text, String hint) {
+        String value = field.getAttribute("text");
+        if (text.equals(value)) {
+            return true;
+        }
+        // Password fields report one mask character per typed character
+        return value != null && !value.equals(hint) && value.length() == text.length() && !text.isEmpty()
+                && value.chars().allMatch(c -> c == '•' || c == '*');
+    }
+
+    private static boolean isEmpty(WebElement field, String hint) {
+        String value = field.getAttribute("text");
+        return value == null || value.isEmpty() || value.equals(hint);
+    }
+
+    private static Object script(String script, Map<String, Object> arguments) {
+        return ((JavascriptExecutor) DriverManager.getDriver()).executeScript(script, arguments);
+    }
+
+    private static String elementId(WebElement field) {
+        return ((RemoteWebElement) field).getId();
+    }
+
+    /**
+     * "input text" takes one shell word: spaces become %s, shell metacharacters are escaped.
+     * Text containing % never gets here (see setTextWithAdb).
+     */
+    private static String escapeForInput(String text) {
+        StringBuilder escaped = new StringBuilder();
+        for (char c : text.toCharArray()) {
+            if (c == ' ') {
+                escaped.append("%s");
+            } else if ("\\'\"`$&|;<>()[]{}*?!~#".indexOf(c) >= 0) {
+                escaped.append('\\').append(c);
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -2,74 +2,48 @@ package appium.webdriver.extensions;
 import org.openqa.selenium.By;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import io.appium.java_client.AppiumBy;
 
-import java.io.InputStream;
-import java.io.IOException;
-import java.time.Duration;
-import java.util.Properties;
+import appium.webdriver.config.Config;
+import appium.webdriver.metrics.Timings;
+
+import java.util.ArrayList;
+import java.util.List;
 public class Utility {
-    private static Properties properties;
-    static {
-        try {
-            // Use classpath-based resource loading instead of file path
-            // This works both locally and in CI/CD pipeline
-            InputStream inputStream = Utility.class.getClassLoader().getResourceAsStream("Config.properties");
-            if (inputStream == null) {
-                // Fallback: try alternative filename (lowercase)
-                inputStream = Utility.class.getClassLoader().getResourceAsStream("config.properties");
-            }
-            if (inputStream == null) {
-                throw new RuntimeException("Could not find Config.properties in classpath. Ensure the file exists in src/main/resources/");
-            }
-            properties = new Properties();
-            properties.load(inputStream);
-            inputStream.close();
-            System.out.println("Config.properties loaded successfully from classpath");
-        } catch (IOException e) {
-            e.printStackTrace();
-            throw new RuntimeException("Could not load config.properties file: " + e.getMessage());
-        }
-    }
-    
     /**
      * Gets a property value with support for system property and environment variable overrides.
-     * Priority: System Property > Environment Variable > Config.properties
-     * This allows CI/CD pipelines to override values without modifying config files.
+     * Priority: System Property > Environment Variable > config/<platform> > Config.properties
+     * Values are resolved once and cached by Config; see there for the typed accessors.
      */
     public static String getProperty(String key) {
-        // First check system properties (set via -D flag in Maven)
-        String value = System.getProperty(key);
-        if (value != null && !value.isEmpty() && !value.equals("${" + key + "}")) {
-            System.out.println("Using system property for " + key + ": " + value);
-            return value;
-        }
-        
-        // Then check environment variables (convert key to uppercase with underscores)
-        String envKey = key.toUpperCase().replace(".", "_");
-        value = System.getenv(envKey);
-        if (value != null && !value.isEmpty()) {
-            System.out.println("Using environment variable for " + key + ": " + value);
-            return value;
-        }
-        
-        // Finally fall back to config.properties
-        return properties.getProperty(key);
+        return Config.get(key);
     }
     public static WebElement waitForElementUntilPresent(By locator, int timeoutInSeconds) {
-        WebDriverWait wait = new WebDriverWait(DriverManager.getDriver(), Duration.ofSeconds(timeoutInSeconds));
-        return wait.until(ExpectedConditions.presenceOfElementLocated(locator));
+        long start = Timings.start();
+        try {
+            return WaitFactory.getWait(timeoutInSeconds).until(ExpectedConditions.presenceOfElementLocated(locator));
+        } catch (TimeoutException e) {
+            // A popup may be covering the element; retry once if the interrupt watcher dismissed one
+            if (InterruptWatcher.isEnabled() && InterruptWatcher.check() > 0) {
+                return WaitFactory.getWait(timeoutInSeconds).until(ExpectedConditions.presenceOfElementLocated(locator));
+            }
+            throw e;
+        } finally {
+            Timings.record("wait", "Utility.waitForElementUntilPresent", start);
+        }
     }
     public static void clickElement(By locator, int timeoutInSeconds) {
         WebElement element = waitForElementUntilPresent(locator, timeoutInSeconds);
+        FrameRecorder.record("click " + locator);
         element.click();
     }
     public static void sendKeys(By locator, String text, int timeoutInSeconds) {
         WebElement element = waitForElementUntilPresent(locator, timeoutInSeconds);
+        FrameRecorder.record("sendKeys " + locator);
         element.clear();
         element.sendKeys(text);
     }
@@ -82,53 +56,134 @@ public class Utility {
      * Checks if an element is present on the page within the specified timeout.
      */
     public static boolean isElementPresent(By locator, int timeoutInSeconds) {
+        long start = Timings.start();
         try {
-            WebDriverWait wait = new WebDriverWait(DriverManager.getDriver(), Duration.ofSeconds(timeoutInSeconds));
-            wait.until(ExpectedConditions.presenceOfElementLocated(locator));
+            WaitFactory.getWait(timeoutInSeconds).until(ExpectedConditions.presenceOfElementLocated(locator));
             return true;
         } catch (NoSuchElementException | TimeoutException e) {
             return false;
+        } finally {
+            Timings.record("wait", "Utility.isElementPresent", start);
         }
     }
+
     /**
-     * Handles and dismisses app-specific and system-level notifications.
-     * This method will try to click the buttons for both notifications in a loop.
+     * Fixed pause for page objects that have no condition to wait for. The time is recorded in
+     * Timings under the calling method, so leftover pauses show up in the timings report.
      */
-    public static void handleAppNotifications() {
-        System.out.println("Checking for and handling app notifications...");
-        // Define the locators for the notifications
-        By appNotificationAllowButton = By.id("com.android.permissioncontroller:id/permission_allow_button");
-        // Multiple locators for the Automatic Check-In Cancel button for better reliability
-        By automaticCheckInCancelById = By.id("com.condecosoftware.condeco:id/buttonCancelAutomaticCheckIn");
-        By automaticCheckInCancelByUiAutomator = AppiumBy.androidUIAutomator("new UiSelector().resourceId(\"com.condecosoftware.condeco:id/buttonCancelAutomaticCheckIn\")");
-        By automaticCheckInCancelByXpath = By.xpath("//android.widget.TextView[@resource-id=\"com.condecosoftware.condeco:id/buttonCancelAutomaticCheckIn\"]");
-        By automaticCheckInCancelButton = automaticCheckInCancelById;
+    public static void pause(long millis) {
+        String caller = StackWalker.getInstance().walk(frames -> frames.skip(1).findFirst()
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                        + "." + frame.getMethodName())
+                .orElse("unknown"));
+        long start = Timings.start();
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            Timings.record("pause", caller, start);
+        }
+    }
 
-        // Loop a few times to handle potential race conditions
-        for (int i = 0; i < 3; i++) {
-            try {
-                // Check for system notification
-                if (isElementPresent(appNotificationAllowButton, 10)) {
-                    clickElement(appNotificationAllowButton, 5);
-                    System.out.println("Allowed App to send notifications");
-                }
+    /**
+     * Resolves whichever of the candidate locators matches first, checking all of them in
+     * each poll instead of paying a full timeout per miss. Candidates that UiAutomator can
+     * express (id, class name, accessibility id, UiSelector) are merged into one
+     * semicolon-separated UiSelector query, so they cost a single round-trip per poll;
+     * the others (e.g. XPath) are only queried when the merged query finds nothing.
+     * @throws TimeoutException if none of the candidates matches within the timeout
+     */
+    public static WebElement findFirstMatch(int timeoutInSeconds, By... candidates) {
+        return findFirstMatch(DriverManager.getDriver(), timeoutInSeconds, candidates);
+    }
 
-                // Check for app-specific notification
-                if (isElementPresent(automaticCheckInCancelButton, 20)) {
-                    clickElement(automaticCheckInCancelButton, 5);
-                    System.out.println("Automatic Check-In notification dismissed.");
+    public static WebElement findFirstMatch(WebDriver webDriver, int timeoutInSeconds, By... candidates) {
+        List<By> queries = mergeCandidates(candidates);
+        long start = Timings.start();
+        try {
+            return WaitFactory.getWait(webDriver, timeoutInSeconds).until(driver -> {
+                for (By query : queries) {
+                    List<WebElement> found = driver.findElements(query);
+                    if (!found.isEmpty()) {
+                        return found.get(0);
+                    }
                 }
+                return null;
+            });
+        } finally {
+            Timings.record("wait", "Utility.findFirstMatch", start);
+        }
+    }
 
-                // If neither notification is present, we can break the loop
-                if (!isElementPresent(appNotificationAllowButton, 1) && !isElementPresent(automaticCheckInCancelButton, 1)) {
-                    break;
-                }
+    /**
+     * Checks whether any of the candidate locators matches within the timeout.
+     */
+    public static boolean isAnyElementPresent(int timeoutInSeconds, By... candidates) {
+        try {
+            findFirstMatch(timeoutInSeconds, candidates);
+            return true;
+        } catch (NoSuchElementException | TimeoutException e) {
+            return false;
+        }
+    }
 
-            } catch (Exception e) {
-                // Catch any exception and continue the loop
-                System.out.println("Notification handling attempt failed: " + e.getMessage());
+    // Folds every UiSelector-expressible candidate into one UiAutomator query, keeping the rest as-is
+    private static List<By> mergeCandidates(By... candidates) {
+        List<By> mergeable = new ArrayList<>();
+        List<String> selectors = new ArrayList<>();
+        List<By> queries = new ArrayList<>();
+        for (By candidate : candidates) {
+            String selector = toUiSelector(candidate);
+            if (selector != null) {
+                mergeable.add(candidate);
+                selectors.add(selector);
+            } else {
+                queries.add(candidate);
             }
         }
+
+        if (mergeable.size() == 1) {
+            // Nothing to merge with, send the locator unchanged
+            queries.add(0, mergeable.get(0));
+        } else if (!selectors.isEmpty()) {
+            queries.add(0, AppiumBy.androidUIAutomator(String.join(";", selectors)));
+        }
+        return queries;
+    }
+
+    private static String toUiSelector(By locator) {
+        if (!(locator instanceof By.Remotable)) {
+            return null;
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        String value = String.valueOf(parameters.value());
+        String quoted = "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+        switch (parameters.using()) {
+            case "-android uiautomator":
+                return value.endsWith(";") ? value.substring(0, value.length() - 1) : value;
+            case "id":
+                return value.contains(":id/")
+                        ? "new UiSelector().resourceId(" + quoted + ")"
+                        : null;
+            case "class name":
+                return "new UiSelector().className(" + quoted + ")";
+            case "accessibility id":
+                return "new UiSelector().description(" + quoted + ")";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Handles and dismisses app-specific and system-level notifications.
+     * Evaluates every InterruptWatcher rule against one page source instead of waiting for each dialog;
+     * dialogs that show up later are dismissed when a lookup runs into them.
+     */
+    public static void handleAppNotifications() {
+        System.out.println("Checking for and handling app notifications...");
+        int dismissed = InterruptWatcher.check();
+        System.out.println("App notification handling completed (" + dismissed + " dismissed)");
     }
     
     /**
@@ -137,49 +192,8 @@ public class Utility {
      */
     public static void handlePostLoginNotifications() {
         System.out.println("Handling post-login notifications...");
-        
-        // Define locators for common post-login dialogs
-        By appNotificationAllowButton = By.id("com.android.permissioncontroller:id/permission_allow_button");
-        By automaticCheckInCancelButton = By.id("com.condecosoftware.condeco:id/buttonCancelAutomaticCheckIn");
-        By dontAllowButton = By.id("com.android.permissioncontroller:id/permission_deny_button");
-        By okButton = By.id("android:id/button1");
-        By cancelButton = By.id("android:id/button2");
-        
-        // Loop multiple times to handle multiple dialogs that may appear sequentially
-        for (int i = 0; i < 5; i++) {
-            try {
-                Thread.sleep(1000);
-                
-                // Handle permission allow button
-                if (isElementPresent(appNotificationAllowButton, 30)) {
-                    clickElement(appNotificationAllowButton, 3);
-                    System.out.println("Clicked 'Allow' on permission dialog");
-                    continue;
-                }
-                
-                // Handle Automatic Check-In dialog
-                if (isElementPresent(automaticCheckInCancelButton, 30)) {
-                    clickElement(automaticCheckInCancelButton, 3);
-                    System.out.println("Dismissed Automatic Check-In dialog");
-                    continue;
-                }
-                
-                // Handle generic OK button
-                if (isElementPresent(okButton, 2)) {
-                    clickElement(okButton, 2);
-                    System.out.println("Clicked OK button on dialog");
-                    continue;
-                }
-                
-                // If no dialogs found, break the loop
-                break;
-                
-            } catch (Exception e) {
-                System.out.println("Post-login notification handling attempt " + (i + 1) + " completed: " + e.getMessage());
-            }
-        }
-        
-        System.out.println("Post-login notification handling completed");
+        int dismissed = InterruptWatcher.check();
+        System.out.println("Post-login notification handling completed (" + dismissed + " dismissed)");
     }
     
     /**
@@ -201,16 +215,19 @@ public class Utility {
             By.id("com.condecosoftware.condeco:id/core_dlg_negative_button")
         };
         
-        for (By buttonLocator : dialogButtons) {
+        // One page source per sweep instead of one lookup per button. Re-read it every sweep:
+        // dialogs appear on their own, without a command that would invalidate the snapshot
+        for (int i = 0; i < dialogButtons.length; i++) {
             try {
-                if (isElementPresent(buttonLocator, 1)) {
-                    clickElement(buttonLocator, 1);
-                    System.out.println("Dismissed dialog using: " + buttonLocator.toString());
-                    // Wait a bit after dismissing a dialog
-                    Thread.sleep(500);
+                PageSnapshot.Node button = PageSnapshot.refresh().findFirst(dialogButtons);
+                if (button == null) {
+                    break;
                 }
+                clickElement(By.id(button.getResourceId()), 1);
+                System.out.println("Dismissed dialog using: " + button);
+                WaitEngine.waitForElementGone(By.id(button.getResourceId()), 1);
             } catch (Exception e) {
-                // Ignore and continue to next button
+                // Ignore and try the next sweep
             }
         }
         
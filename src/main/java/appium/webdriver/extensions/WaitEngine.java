@@ -0,0 +1,157 @@
+package appium.webdriver.extensions;
+
+import appium.webdriver.config.Config;
+import appium.webdriver.logging.TestLogger;
+import appium.webdriver.metrics.Timings;
+import io.appium.java_client.android.AndroidDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Condition-based waits to use instead of fixed Thread.sleep calls in page objects.
+ *
+ * Every wait polls with exponential backoff: the first re-check happens after
+ * wait.poll.floor.ms, each following delay grows by wait.backoff.factor and is capped at
+ * wait.poll.max.ms. A wait returns as soon as its condition holds, so a fast device is
+ * never held back by a sleep sized for the slowest emulator.
+ *
+ * Usage:
+ *   Utility.clickElement(closeButton, 10);
+ *   WaitEngine.waitForElementGone(closeButton, 2);
+ *   WaitEngine.waitUntil("continue enabled", 5, () -> continueBtn.isEnabled());
+ */
+public class WaitEngine {
+
+    private static final long POLL_FLOOR_MS = Config.getLong("wait.poll.floor.ms", 100);
+    private static final long POLL_MAX_MS = Config.getLong("wait.poll.max.ms", 1000);
+    private static final double BACKOFF_FACTOR = Config.getDouble("wait.backoff.factor", 1.5);
+
+    /**
+     * Polls the condition with exponential backoff until it holds or the timeout elapses.
+     * Exceptions thrown by the condition count as "not yet".
+     * @return true if the condition was met, false on timeout
+     */
+    public static boolean waitUntil(String description, double timeoutSeconds, BooleanSupplier condition) {
+        long start = System.nanoTime();
+        long deadline = start + (long) (timeoutSeconds * 1_000_000_000L);
+        long delay = POLL_FLOOR_MS;
+
+        while (true) {
+            try {
+                if (condition.getAsBoolean()) {
+                    Timings.record("wait", "WaitEngine " + description, start);
+                    TestLogger.debug("Wait for " + description + " satisfied after " + elapsedMillis(start) + "ms");
+                    return true;
+                }
+            } catch (RuntimeException e) {
+                // Treat lookup/stale-element failures as "condition not met yet"
+            }
+
+            long remainingMs = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMs <= 0) {
+                Timings.record("wait", "WaitEngine " + description, start);
+                TestLogger.debug("Wait for " + description + " timed out after " + elapsedMillis(start) + "ms");
+                return false;
+            }
+            if (!sleepQuietly(Math.min(delay, remainingMs))) {
+                return false;
+            }
+            delay = nextDelay(delay);
+        }
+    }
+
+    /**
+     * Waits until two consecutive page sources are identical, i.e. the screen has stopped
+     * changing after an interaction (transition, overlay, list load). Each poll reads the whole
+     * page source, so prefer waiting for the element the next step needs when there is one.
+     * @return true once the UI is idle, false if it was still changing at the timeout
+     */
+    public static boolean waitForUiIdle(double timeoutSeconds) {
+        String[] previousSource = {null};
+        return waitUntil("UI idle", timeoutSeconds, () -> {
+            String currentSource = DriverManager.getDriver().getPageSource();
+            boolean idle = currentSource.equals(previousSource[0]);
+            previousSource[0] = currentSource;
+            return idle;
+        });
+    }
+
+    /**
+     * Waits until the foreground activity is no longer the given one.
+     */
+    public static boolean waitForActivityChange(String fromActivity, double timeoutSeconds) {
+        return waitUntil("activity change from " + fromActivity, timeoutSeconds,
+                () -> !fromActivity.equals(currentActivity()));
+    }
+
+    /**
+     * Waits until the foreground activity name contains any of the given fragments.
+     */
+    public static boolean waitForActivity(double timeoutSeconds, String... activityFragments) {
+        return waitUntil("activity " + String.join("/", activityFragments), timeoutSeconds, () -> {
+            String activity = currentActivity();
+            for (String fragment : activityFragments) {
+                if (activity != null && activity.contains(fragment)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Waits for an element to be present, delegating to Utility.waitForElementUntilPresent.
+     * @return the element, or null if it did not appear in time
+     */
+    public static WebElement waitForElement(By locator, int timeoutSeconds) {
+        try {
+            return Utility.waitForElementUntilPresent(locator, timeoutSeconds);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Waits until no element matches the locator any more (e.g. a spinner or dialog went away).
+     */
+    public static boolean waitForElementGone(By locator, double timeoutSeconds) {
+        return waitUntil("absence of " + locator, timeoutSeconds,
+                () -> DriverManager.getDriver().findElements(locator).isEmpty());
+    }
+
+    /**
+     * Sleeps for the backoff delay of the given (1-based) retry attempt. For hand-written
+     * retry loops that need a growing pause between attempts rather than a fixed one.
+     */
+    public static void backoff(int attempt) throws InterruptedException {
+        long delay = POLL_FLOOR_MS;
+        for (int i = 1; i < attempt && delay < POLL_MAX_MS; i++) {
+            delay = nextDelay(delay);
+        }
+        Thread.sleep(delay);
+    }
+
+    private static String currentActivity() {
+        return ((AndroidDriver) DriverManager.getDriver()).currentActivity();
+    }
+
+    private static long nextDelay(long delay) {
+        return Math.min(POLL_MAX_MS, Math.max(delay + 1, (long) (delay * BACKOFF_FACTOR)));
+    }
+
+    private static boolean sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,56 @@
+package appium.webdriver.extensions;
+
+import appium.webdriver.config.Config;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out cached WebDriverWait instances, one per driver session and timeout.
+ *
+ * Waits poll every wait.poll.interval.ms (Config.properties, default 100ms) instead of
+ * Selenium's 500ms, and ignore NoSuchElementException and StaleElementReferenceException
+ * between polls. A WebDriverWait keeps no per-call state, so the same instance is reused
+ * by every lookup on the same session.
+ */
+public class WaitFactory {
+
+    private static final long DEFAULT_POLL_INTERVAL_MS = 100;
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(Config.getLong("wait.poll.interval.ms", DEFAULT_POLL_INTERVAL_MS));
+
+    private static final Map<WebDriver, Map<Integer, WebDriverWait>> waits = new ConcurrentHashMap<>();
+
+    /**
+     * Wait for the calling thread's driver with the given timeout.
+     */
+    public static WebDriverWait getWait(int timeoutSeconds) {
+        return getWait(DriverManager.getDriver(), timeoutSeconds);
+    }
+
+    public static WebDriverWait getWait(WebDriver driver, int timeoutSeconds) {
+        return waits.computeIfAbsent(driver, d -> new ConcurrentHashMap<>())
+                .computeIfAbsent(timeoutSeconds, timeout -> newWait(driver, timeout));
+    }
+
+    /**
+     * Drops the cached waits of a session that is being quit.
+     */
+    public static void evict(WebDriver driver) {
+        waits.remove(driver);
+    }
+
+    public static Duration getPollInterval() {
+        return POLL_INTERVAL;
+    }
+
+    private static WebDriverWait newWait(WebDriver driver, int timeoutSeconds) {
+        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds), POLL_INTERVAL);
+        wait.ignoring(NoSuchElementException.class, StaleElementReferenceException.class);
+        return wait;
+    }
+}
@@ -4,11 +4,40 @@ import io.qameta.allure.Allure;
 import io.qameta.allure.Step;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Centralized Test Logger for the automation framework.
  * Provides consistent logging across console, log files, and Allure reports.
- * 
+ *
+ * Messages are handed to a bounded ring buffer and written by a single background
+ * drainer thread, which batches console, log file and SLF4J output. The calling
+ * (scenario) thread never blocks on stdout; if the buffer is full, DEBUG/INFO messages
+ * are dropped and counted, while WARN/ERROR messages wait for room (up to 5 seconds)
+ * so the lines that explain a failure are kept. Call flush() before the JVM exits
+ * (Hooks.afterAll does).
+ *
+ * Tuning (system properties):
+ *   log.buffer.size - ring buffer capacity in messages (default 8192)
+ *   log.file        - plain-text log file, e.g. target/test-automation.log (default: none)
+ *
  * Usage:
  *   TestLogger.info("Starting test...");
  *   TestLogger.pass("Login successful");
@@ -19,7 +48,8 @@ import org.slf4j.LoggerFactory;
 public class TestLogger {
 
     private static final Logger logger = LoggerFactory.getLogger("TestAutomation");
-    
+    private static final boolean DEBUG_ENABLED = logger.isDebugEnabled();
+
     // ANSI color codes for console output
     private static final String RESET = "\u001B[0m";
     private static final String GREEN = "\u001B[32m";
@@ -27,7 +57,7 @@ public class TestLogger {
     private static final String YELLOW = "\u001B[33m";
     private static final String BLUE = "\u001B[34m";
     private static final String CYAN = "\u001B[36m";
-    
+
     // Emojis for visual distinction
     private static final String EMOJI_INFO = "ℹ️ ";
     private static final String EMOJI_PASS = "✅ ";
@@ -41,13 +71,33 @@ public class TestLogger {
     private static final String EMOJI_SERVER = "🖥️ ";
     private static final String EMOJI_ELEMENT = "🔎 ";
 
+    // Separators are built once rather than on every call
+    private static final String SCENARIO_SEPARATOR = "═".repeat(60);
+    private static final String LINE_SEPARATOR = "─".repeat(60);
+    private static final String SUITE_BORDER_TOP = "╔" + "═".repeat(58) + "╗";
+    private static final String SUITE_BORDER_BOTTOM = "╚" + "═".repeat(58) + "╝";
+
+    // Async pipeline
+    private static final int BUFFER_SIZE = Integer.getInteger("log.buffer.size", 8192);
+    private static final int MAX_BATCH = 512;
+    private static final long IMPORTANT_OFFER_TIMEOUT_SECONDS = 5;
+    private static final BlockingQueue<LogEvent> buffer = new ArrayBlockingQueue<>(BUFFER_SIZE);
+    private static final AtomicLong droppedMessages = new AtomicLong();
+    private static final PrintStream console = System.out;
+    private static final Writer logFile = openLogFile();
+
+    static {
+        Thread drainer = new Thread(TestLogger::drain, "TestLogger-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(TestLogger::flush, "TestLogger-shutdown"));
+    }
+
     /**
      * Log an informational message
      */
     public static void info(String message) {
-        String formattedMsg = EMOJI_INFO + message;
-        logger.info(formattedMsg);
-        System.out.println(BLUE + formattedMsg + RESET);
+        enqueue(Level.INFO, BLUE, EMOJI_INFO, message);
     }
 
     /**
@@ -55,9 +105,7 @@ public class TestLogger {
      */
     @Step("✅ {message}")
     public static void pass(String message) {
-        String formattedMsg = EMOJI_PASS + message;
-        logger.info(formattedMsg);
-        System.out.println(GREEN + formattedMsg + RESET);
+        enqueue(Level.INFO, GREEN, EMOJI_PASS, message);
     }
 
     /**
@@ -65,9 +113,7 @@ public class TestLogger {
      */
     @Step("❌ {message}")
     public static void fail(String message) {
-        String formattedMsg = EMOJI_FAIL + message;
-        logger.error(formattedMsg);
-        System.out.println(RED + formattedMsg + RESET);
+        enqueue(Level.ERROR, RED, EMOJI_FAIL, message);
     }
 
     /**
@@ -75,19 +121,15 @@ public class TestLogger {
      */
     @Step("⚠️ {message}")
     public static void warn(String message) {
-        String formattedMsg = EMOJI_WARN + message;
-        logger.warn(formattedMsg);
-        System.out.println(YELLOW + formattedMsg + RESET);
+        enqueue(Level.WARN, YELLOW, EMOJI_WARN, message);
     }
 
     /**
      * Log a debug message (only visible when debug level is enabled)
      */
     public static void debug(String message) {
-        String formattedMsg = EMOJI_DEBUG + message;
-        logger.debug(formattedMsg);
-        if (logger.isDebugEnabled()) {
-            System.out.println(CYAN + formattedMsg + RESET);
+        if (DEBUG_ENABLED) {
+            enqueue(Level.DEBUG, CYAN, EMOJI_DEBUG, message);
         }
     }
 
@@ -96,93 +138,74 @@ public class TestLogger {
      */
     @Step("{stepDescription}")
     public static void step(String stepDescription) {
-        String formattedMsg = EMOJI_STEP + stepDescription;
-        logger.info(formattedMsg);
-        System.out.println(BLUE + formattedMsg + RESET);
+        enqueue(Level.INFO, BLUE, EMOJI_STEP, stepDescription);
     }
 
     /**
      * Log scenario start
      */
     public static void scenarioStart(String scenarioName) {
-        String separator = "═".repeat(60);
-        String formattedMsg = EMOJI_SCENARIO + "SCENARIO: " + scenarioName;
-        logger.info(separator);
-        logger.info(formattedMsg);
-        logger.info(separator);
-        System.out.println("\n" + CYAN + separator + RESET);
-        System.out.println(CYAN + formattedMsg + RESET);
-        System.out.println(CYAN + separator + RESET);
+        enqueue(null, "", "", "");
+        enqueue(Level.INFO, CYAN, "", SCENARIO_SEPARATOR);
+        enqueue(Level.INFO, CYAN, EMOJI_SCENARIO + "SCENARIO: ", scenarioName);
+        enqueue(Level.INFO, CYAN, "", SCENARIO_SEPARATOR);
     }
 
     /**
      * Log scenario end with status
      */
     public static void scenarioEnd(String scenarioName, boolean passed) {
-        String status = passed ? "PASSED" : "FAILED";
-        String emoji = passed ? EMOJI_PASS : EMOJI_FAIL;
-        String color = passed ? GREEN : RED;
-        String formattedMsg = emoji + "SCENARIO " + status + ": " + scenarioName;
-        String separator = "─".repeat(60);
-        
         if (passed) {
-            logger.info(formattedMsg);
+            enqueue(Level.INFO, GREEN, EMOJI_PASS + "SCENARIO PASSED: ", scenarioName);
+            enqueue(null, GREEN, "", LINE_SEPARATOR);
         } else {
-            logger.error(formattedMsg);
+            enqueue(Level.ERROR, RED, EMOJI_FAIL + "SCENARIO FAILED: ", scenarioName);
+            enqueue(null, RED, "", LINE_SEPARATOR);
         }
-        System.out.println(color + formattedMsg + RESET);
-        System.out.println(color + separator + RESET + "\n");
+        enqueue(null, "", "", "");
     }
 
     /**
      * Log app-related actions
      */
     public static void app(String message) {
-        String formattedMsg = EMOJI_APP + message;
-        logger.info(formattedMsg);
-        System.out.println(BLUE + formattedMsg + RESET);
+        enqueue(Level.INFO, BLUE, EMOJI_APP, message);
     }
 
     /**
      * Log server-related actions
      */
     public static void server(String message) {
-        String formattedMsg = EMOJI_SERVER + message;
-        logger.info(formattedMsg);
-        System.out.println(CYAN + formattedMsg + RESET);
+        enqueue(Level.INFO, CYAN, EMOJI_SERVER, message);
     }
 
     /**
      * Log element interactions
      */
     public static void element(String action, String elementDescription) {
-        String formattedMsg = EMOJI_ELEMENT + action + ": " + elementDescription;
-        logger.debug(formattedMsg);
-        System.out.println(CYAN + formattedMsg + RESET);
+        enqueue(Level.DEBUG, CYAN, EMOJI_ELEMENT, action + ": " + elementDescription);
     }
 
     /**
      * Log screenshot capture
      */
     public static void screenshot(String screenshotName) {
-        String formattedMsg = EMOJI_SCREENSHOT + "Screenshot captured: " + screenshotName;
-        logger.info(formattedMsg);
-        System.out.println(BLUE + formattedMsg + RESET);
+        enqueue(Level.INFO, BLUE, EMOJI_SCREENSHOT + "Screenshot captured: ", screenshotName);
     }
 
     /**
      * Log an exception with stack trace
      */
     public static void error(String message, Throwable throwable) {
-        String formattedMsg = EMOJI_FAIL + message;
-        logger.error(formattedMsg, throwable);
-        System.out.println(RED + formattedMsg + RESET);
-        System.out.println(RED + "Exception: " + throwable.getMessage() + RESET);
-        
-        // Attach exception to Allure
-        Allure.addAttachment("Exception Details", "text/plain", 
-            message + "\n\nException: " + throwable.getClass().getName() + 
-            "\nMessage: " + throwable.getMessage() + 
+        LogEvent event = new LogEvent(Level.ERROR, RED, EMOJI_FAIL, message);
+        event.throwable = throwable;
+        offer(event);
+        enqueue(null, RED, "Exception: ", String.valueOf(throwable.getMessage()));
+
+        // Attach exception to Allure (stays on the calling thread, which owns the Allure test context)
+        Allure.addAttachment("Exception Details", "text/plain",
+            message + "\n\nException: " + throwable.getClass().getName() +
+            "\nMessage: " + throwable.getMessage() +
             "\nStack Trace:\n" + getStackTraceString(throwable));
     }
 
@@ -190,66 +213,195 @@ public class TestLogger {
      * Log an error message without exception (overloaded method)
      */
     public static void error(String message) {
-        String formattedMsg = EMOJI_FAIL + message;
-        logger.error(formattedMsg);
-        System.out.println(RED + formattedMsg + RESET);
+        enqueue(Level.ERROR, RED, EMOJI_FAIL, message);
     }
 
     /**
      * Log with custom emoji
      */
     public static void logWithEmoji(String emoji, String message) {
-        String formattedMsg = emoji + " " + message;
-        logger.info(formattedMsg);
-        System.out.println(formattedMsg);
+        enqueue(Level.INFO, "", emoji + " ", message);
     }
 
     /**
      * Add a separator line in logs
      */
     public static void separator() {
-        String line = "─".repeat(60);
-        logger.info(line);
-        System.out.println(line);
+        enqueue(Level.INFO, "", "", LINE_SEPARATOR);
     }
 
     /**
      * Log test suite start
      */
     public static void suiteStart(String suiteName) {
-        String border = "╔" + "═".repeat(58) + "╗";
         String middle = "║" + centerText("TEST SUITE: " + suiteName, 58) + "║";
-        String bottom = "╚" + "═".repeat(58) + "╝";
-        
-        logger.info(border);
-        logger.info(middle);
-        logger.info(bottom);
-        
-        System.out.println("\n" + GREEN + border + RESET);
-        System.out.println(GREEN + middle + RESET);
-        System.out.println(GREEN + bottom + RESET + "\n");
+
+        enqueue(null, "", "", "");
+        enqueue(Level.INFO, GREEN, "", SUITE_BORDER_TOP);
+        enqueue(Level.INFO, GREEN, "", middle);
+        enqueue(Level.INFO, GREEN, "", SUITE_BORDER_BOTTOM);
+        enqueue(null, "", "", "");
     }
 
     /**
      * Log test suite end
      */
     public static void suiteEnd(String suiteName, int passed, int failed) {
-        String border = "╔" + "═".repeat(58) + "╗";
         String title = "║" + centerText("TEST SUITE COMPLETED: " + suiteName, 58) + "║";
         String results = "║" + centerText("Passed: " + passed + " | Failed: " + failed, 58) + "║";
-        String bottom = "╚" + "═".repeat(58) + "╝";
-        
+
         String color = failed == 0 ? GREEN : RED;
-        
-        logger.info(border);
-        logger.info(title);
-        logger.info(results);
-        logger.info(bottom);
-        
-        System.out.println("\n" + color + border + RESET);
-        System.out.println(color + title + RESET);
-        System.out.println(color + results + RESET);
-        System.out.println(color + bottom + RESET + "\n");
+
+        enqueue(null, "", "", "");
+        enqueue(Level.INFO, color, "", SUITE_BORDER_TOP);
+        enqueue(Level.INFO, color, "", title);
+        enqueue(Level.INFO, color, "", results);
+        enqueue(Level.INFO, color, "", SUITE_BORDER_BOTTOM);
+        enqueue(null, "", "", "");
+    }
+
+    /**
+     * Blocks until every message logged so far has been written (at most 10 seconds).
+     * Called from Hooks.afterAll and on JVM shutdown.
+     */
+    public static void flush() {
+        LogEvent marker = new LogEvent(null, "", "", "");
+        marker.flushed = new CountDownLatch(1);
+        try {
+            if (buffer.offer(marker, 10, TimeUnit.SECONDS)) {
+                marker.flushed.await(10, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Hands a message to the drainer; only a full buffer can make WARN/ERROR wait
+    private static void enqueue(Level level, String color, String prefix, String message) {
+        offer(new LogEvent(level, color, prefix, message));
+    }
+
+    private static void offer(LogEvent event) {
+        if (buffer.offer(event)) {
+            return;
+        }
+        if (event.level == Level.ERROR || event.level == Level.WARN) {
+            // Failures and warnings are worth a short wait for the drainer
+            try {
+                if (buffer.offer(event, IMPORTANT_OFFER_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        droppedMessages.incrementAndGet();
+    }
+
+    // Drainer loop: takes whatever is queued (up to MAX_BATCH) and writes it in one go
+    private static void drain() {
+        List<LogEvent> batch = new ArrayList<>(MAX_BATCH);
+        StringBuilder consoleText = new StringBuilder(8192);
+        StringBuilder fileText = new StringBuilder(8192);
+        SimpleDateFormat timestampFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+
+        while (true) {
+            try {
+                batch.add(buffer.take());
+                buffer.drainTo(batch, MAX_BATCH - 1);
+
+                long dropped = droppedMessages.getAndSet(0);
+                if (dropped > 0) {
+                    LogEvent warning = new LogEvent(Level.WARN, YELLOW, EMOJI_WARN,
+                            "TestLogger buffer full, dropped " + dropped + " message(s)");
+                    batch.add(0, warning);
+                }
+
+                for (LogEvent event : batch) {
+                    if (event.flushed != null) {
+                        continue;
+                    }
+                    String formattedMsg = event.prefix + event.message;
+                    consoleText.append(event.color).append(formattedMsg)
+                            .append(event.color.isEmpty() ? "" : RESET).append(System.lineSeparator());
+                    if (event.level != null) {
+                        log(event.level, formattedMsg, event.throwable);
+                        fileText.append(timestampFormat.format(new Date(event.timestampMillis))).append(' ').append(event.level).append(" [")
+                                .append(event.threadName).append("] ").append(formattedMsg).append(System.lineSeparator());
+                        if (event.throwable != null) {
+                            fileText.append(event.throwable).append(System.lineSeparator())
+                                    .append(getStackTraceString(event.throwable));
+                        }
+                    }
+                }
+
+                console.print(consoleText);
+                console.flush();
+                writeToLogFile(fileText);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                // Never let a bad message kill the drainer
+                console.println("TestLogger drainer error: " + e);
+            } finally {
+                for (LogEvent event : batch) {
+                    if (event.flushed != null) {
+                        event.flushed.countDown();
+                    }
+                }
+                batch.clear();
+                consoleText.setLength(0);
+                fileText.setLength(0);
+            }
+        }
+    }
+
+    private static void log(Level level, String message, Throwable throwable) {
+        switch (level) {
+            case ERROR:
+                logger.error(message, throwable);
+                break;
+            case WARN:
+                logger.warn(message, throwable);
+                break;
+            case DEBUG:
+                logger.debug(message, throwable);
+                break;
+            case TRACE:
+                logger.trace(message, throwable);
+                break;
+            default:
+                logger.info(message, throwable);
+        }
+    }
+
+    private static void writeToLogFile(CharSequence text) {
+        if (logFile == null || text.length() == 0) {
+            return;
+        }
+        try {
+            logFile.append(text);
+            logFile.flush();
+        } catch (IOException e) {
+            console.println("TestLogger could not write log file: " + e.getMessage());
+        }
+    }
+
+    private static Writer openLogFile() {
+        String path = System.getProperty("log.file", "");
+        if (path.isEmpty()) {
+            return null;
+        }
+        try {
+            File file = new File(path);
+            if (file.getParentFile() != null) {
+                file.getParentFile().mkdirs();
+            }
+            return new BufferedWriter(new FileWriter(file, StandardCharsets.UTF_8, true));
+        } catch (IOException e) {
+            System.out.println("TestLogger could not open log file " + path + ": " + e.getMessage());
+            return null;
+        }
     }
 
     // Helper method to center text
@@ -269,4 +421,25 @@ public class TestLogger {
         }
         return sb.toString();
     }
+
+    /**
+     * One queued log message. A null level means console-only output (blank lines, trailing separators).
+     */
+    private static final class LogEvent {
+        final Level level;
+        final String color;
+        final String prefix;
+        final String message;
+        final String threadName = Thread.currentThread().getName();
+        final long timestampMillis = System.currentTimeMillis();
+        Throwable throwable;
+        CountDownLatch flushed;
+
+        LogEvent(Level level, String color, String prefix, String message) {
+            this.level = level;
+            this.color = color;
+            this.prefix = prefix;
+            this.message = message;
+        }
+    }
 }
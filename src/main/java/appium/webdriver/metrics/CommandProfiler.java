@@ -0,0 +1,181 @@
+package appium.webdriver.metrics;
+
+import appium.webdriver.config.Config;
+import appium.webdriver.extensions.PageSnapshot;
+import appium.webdriver.logging.TestLogger;
+import io.appium.java_client.MobileCommand;
+import io.appium.java_client.remote.AppiumCommandExecutor;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.Response;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Command Profiler - counts and times every remote command a session sends to Appium.
+ *
+ * DriverManager creates sessions on newExecutor(url), an AppiumCommandExecutor whose execute()
+ * is timed. Commands are keyed by name ("findElement", "getElementAttribute", ...); executeScript
+ * calls are split by script, e.g. "executeScript mobile: type". Timings go into Timings under
+ * the "command" category (and therefore into timings.json/csv); per-scenario counts are kept
+ * here, attributed through startScenario()/endScenario() from Hooks. report() logs the
+ * chattiest commands and scenarios at suite end.
+ *
+ * The executor is also the one place every command passes through, so it drops the calling
+ * thread's PageSnapshot before any command that may change the screen (everything but lookups
+ * and reads). Page objects clicking through the raw driver therefore never leave a stale
+ * snapshot behind. Set profiler.commands.enabled=false to keep the invalidation without timing.
+ */
+public class CommandProfiler {
+
+    private static final boolean ENABLED = Config.getBoolean("profiler.commands.enabled", true);
+    private static final int TOP_N = 10;
+    // Commands that only read the screen or the session and leave the page snapshot valid
+    private static final Set<String> READ_ONLY_COMMANDS = new HashSet<>(Arrays.asList(
+            DriverCommand.FIND_ELEMENT, DriverCommand.FIND_ELEMENTS,
+            DriverCommand.FIND_CHILD_ELEMENT, DriverCommand.FIND_CHILD_ELEMENTS,
+            DriverCommand.GET_ELEMENT_ATTRIBUTE, DriverCommand.GET_ELEMENT_DOM_PROPERTY,
+            DriverCommand.GET_ELEMENT_TEXT, DriverCommand.GET_ELEMENT_TAG_NAME,
+            DriverCommand.GET_ELEMENT_RECT, DriverCommand.GET_ELEMENT_LOCATION, DriverCommand.GET_ELEMENT_SIZE,
+            DriverCommand.IS_ELEMENT_DISPLAYED, DriverCommand.IS_ELEMENT_ENABLED, DriverCommand.IS_ELEMENT_SELECTED,
+            DriverCommand.GET_PAGE_SOURCE, DriverCommand.SCREENSHOT, DriverCommand.ELEMENT_SCREENSHOT,
+            DriverCommand.GET_LOG, DriverCommand.GET_AVAILABLE_LOG_TYPES, DriverCommand.GET_CURRENT_WINDOW_SIZE,
+            MobileCommand.CURRENT_ACTIVITY, MobileCommand.GET_CURRENT_PACKAGE, "queryAppState", "isKeyboardShown"));
+
+    private static final Set<String> commandNames = ConcurrentHashMap.newKeySet();
+    private static final ThreadLocal<String> currentScenario = new ThreadLocal<>();
+    // Scenario -> command -> count
+    private static final Map<String, Map<String, LongAdder>> scenarioCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Executor for a new session; commands are timed unless profiling is disabled.
+     */
+    public static HttpCommandExecutor newExecutor(URL serverUrl) {
+        return new ProfilingExecutor(serverUrl);
+    }
+
+    /**
+     * Attributes the calling thread's following commands to the scenario.
+     */
+    public static void startScenario(String scenarioName) {
+        currentScenario.set(scenarioName);
+    }
+
+    /**
+     * Logs the scenario's command count and stops attributing commands to it.
+     */
+    public static void endScenario() {
+        String scenario = currentScenario.get();
+        currentScenario.remove();
+        Map<String, LongAdder> counts = scenario == null ? null : scenarioCounts.get(scenario);
+        if (counts != null) {
+            TestLogger.debug("Remote commands in scenario: " + total(counts) + " (" + topCommands(counts, 3) + ")");
+        }
+    }
+
+    /**
+     * Logs the commands with the highest total time and the scenarios sending the most commands.
+     */
+    public static void report() {
+        Map<String, LatencyHistogram> commands = new HashMap<>();
+        for (String name : commandNames) {
+            commands.put(name, Timings.get("command", name));
+        }
+        if (commands.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<String, LatencyHistogram>> byTotal = new ArrayList<>(commands.entrySet());
+        byTotal.sort(Comparator.comparingDouble(entry -> -entry.getValue().getTotalMillis()));
+        long totalCommands = byTotal.stream().mapToLong(entry -> entry.getValue().getCount()).sum();
+        TestLogger.info("Remote commands: " + totalCommands + " in total, top by time:");
+        for (Map.Entry<String, LatencyHistogram> entry : byTotal.subList(0, Math.min(TOP_N, byTotal.size()))) {
+            LatencyHistogram histogram = entry.getValue();
+            TestLogger.info(String.format(Locale.ROOT, "  %-45s n=%-6d total=%.0fms mean=%.1fms p99=%.0fms",
+                    entry.getKey(), histogram.getCount(), histogram.getTotalMillis(),
+                    histogram.getMeanMillis(), histogram.getPercentileMillis(99)));
+        }
+
+        List<Map.Entry<String, Map<String, LongAdder>>> byScenario = new ArrayList<>(scenarioCounts.entrySet());
+        byScenario.sort(Comparator.comparingLong(entry -> -total(entry.getValue())));
+        TestLogger.info("Chattiest scenarios:");
+        for (Map.Entry<String, Map<String, LongAdder>> entry : byScenario.subList(0, Math.min(TOP_N, byScenario.size()))) {
+            TestLogger.info("  " + entry.getKey() + ": " + total(entry.getValue()) + " commands ("
+                    + topCommands(entry.getValue(), 3) + ")");
+        }
+    }
+
+    static void record(String command, long nanos) {
+        Timings.recordNanos("command", command, nanos);
+        commandNames.add(command);
+        String scenario = currentScenario.get();
+        if (scenario != null) {
+            scenarioCounts.computeIfAbsent(scenario, s -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(command, c -> new LongAdder())
+                    .increment();
+        }
+    }
+
+    private static long total(Map<String, LongAdder> counts) {
+        return counts.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    private static String topCommands(Map<String, LongAdder> counts, int limit) {
+        List<Map.Entry<String, LongAdder>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Comparator.comparingLong(entry -> -entry.getValue().sum()));
+        List<String> parts = new ArrayList<>();
+        for (Map.Entry<String, LongAdder> entry : entries.subList(0, Math.min(limit, entries.size()))) {
+            parts.add(entry.getKey() + " x" + entry.getValue().sum());
+        }
+        return String.join(", ", parts);
+    }
+
+    private static String commandName(Command command) {
+        if (DriverCommand.EXECUTE_SCRIPT.equals(command.getName())) {
+            Object script = command.getParameters().get("script");
+            if (script != null && script.toString().startsWith("mobile:")) {
+                return command.getName() + " " + script;
+            }
+        }
+        return command.getName();
+    }
+
+    /**
+     * AppiumCommandExecutor that invalidates the page snapshot before state-changing commands
+     * and records the round-trip time of every command.
+     */
+    private static class ProfilingExecutor extends AppiumCommandExecutor {
+
+        private ProfilingExecutor(URL serverUrl) {
+            super(MobileCommand.commandRepository, serverUrl);
+        }
+
+        @Override
+        public Response execute(Command command) {
+            if (!READ_ONLY_COMMANDS.contains(command.getName())) {
+                PageSnapshot.invalidate();
+            }
+            if (!ENABLED) {
+                return super.execute(command);
+            }
+            long start = System.nanoTime();
+            try {
+                return super.execute(command);
+            } finally {
+                record(commandName(command), System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package appium.webdriver.metrics;
+
+import appium.webdriver.config.Config;
+import appium.webdriver.logging.TestLogger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Timings - wall-time instrumentation for the whole run.
+ *
+ * Every measurement goes into a LatencyHistogram keyed by category and name:
+ *   scenario / step / hook  - Cucumber test cases and steps (recorded by TimingsPlugin)
+ *   wait                    - Utility lookups and WaitEngine conditions
+ *   lifecycle               - DriverManager session, restart and screenshot calls
+ *   pause                   - fixed pauses in page objects (Utility.pause)
+ * At the end of the run export() writes timings.json and timings.csv to timings.dir
+ * (default target/timings, next to target/allure-results), sorted by total time.
+ *
+ * Usage:
+ *   long start = Timings.start();
+ *   try { ... } finally { Timings.record("lifecycle", "DriverManager.createDriver", start); }
+ */
+public class Timings {
+
+    private static final String DEFAULT_DIRECTORY = "target/timings";
+
+    private static final Map<String, Map<String, LatencyHistogram>> histograms = new ConcurrentHashMap<>();
+
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the time elapsed since a start() timestamp.
+     */
+    public static void record(String category, String name, long startNanos) {
+        recordNanos(category, name, System.nanoTime() - startNanos);
+    }
+
+    public static void recordNanos(String category, String name, long nanos) {
+        histograms.computeIfAbsent(category, c -> new ConcurrentHashMap<>())
+                .computeIfAbsent(name, n -> new LatencyHistogram())
+                .recordNanos(nanos);
+    }
+
+    /**
+     * Histogram of one measurement, or null if it was never recorded.
+     */
+    public static LatencyHistogram get(String category, String name) {
+        Map<String, LatencyHistogram> byName = histograms.get(category);
+        return byName == null ? null : byName.get(name);
+    }
+
+    /**
+     * Writes timings.json and timings.csv and logs the top entries by total time.
+     */
+    public static void export() {
+        List<Map<String, Object>> rows = summarize();
+        if (rows.isEmpty()) {
+            return;
+        }
+        File directory = new File(Config.getString("timings.dir", DEFAULT_DIRECTORY));
+        directory.mkdirs();
+        try {
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(new File(directory, "timings.json"), rows);
+            writeCsv(new File(directory, "timings.csv"), rows);
+            TestLogger.info("Timings written to " + directory.getPath());
+        } catch (IOException e) {
+            TestLogger.warn("Failed to write timings: " + e.getMessage());
+        }
+
+        TestLogger.info("Top timings by total time:");
+        for (Map<String, Object> row : rows.subList(0, Math.min(10, rows.size()))) {
+            TestLogger.info(String.format(Locale.ROOT, "  %-9s %-60s n=%-5d total=%.0fms p50=%.0fms p99=%.0fms",
+                    row.get("category"), row.get("name"), (Long) row.get("count"),
+                    (Double) row.get("totalMs"), (Double) row.get("p50Ms"), (Double) row.get("p99Ms")));
+        }
+    }
+
+    /**
+     * Clears all recorded timings.
+     */
+    public static void reset() {
+        histograms.clear();
+    }
+
+    private static List<Map<String, Object>> summarize() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        histograms.forEach((category, byName) -> byName.forEach((name, histogram) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("category", category);
+            row.put("name", name);
+            row.put("count", histogram.getCount());
+            row.put("totalMs", round(histogram.getTotalMillis()));
+            row.put("meanMs", round(histogram.getMeanMillis()));
+            row.put("minMs", round(histogram.getMinMillis()));
+            row.put("p50Ms", round(histogram.getPercentileMillis(50)));
+            row.put("p90Ms", round(histogram.getPercentileMillis(90)));
+            row.put("p99Ms", round(histogram.getPercentileMillis(99)));
+            row.put("maxMs", round(histogram.getMaxMillis()));
+            rows.add(row);
+        }));
+        rows.sort(Comparator.comparingDouble(row -> -(Double) row.get("totalMs")));
+        return rows;
+    }
+
+    private static void writeCsv(File file, List<Map<String, Object>> rows) throws IOException {
+        try (PrintWriter writer = new PrintWriter(file, StandardCharsets.UTF_8)) {
+            writer.println(String.join(",", rows.get(0).keySet()));
+            for (Map<String, Object> row : rows) {
+                List<String> cells = new ArrayList<>();
+                for (Object value : row.values()) {
+                    String cell = String.valueOf(value);
+                    cells.add(cell.contains(",") || cell.contains("\"") ? "\"" + cell.replace("\"", "\"\"") + "\"" : cell);
+                }
+                writer.println(String.join(",", cells));
+            }
+        }
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 100) / 100.0;
+    }
+}
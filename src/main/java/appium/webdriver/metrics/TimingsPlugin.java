@@ -0,0 +1,39 @@
+package appium.webdriver.metrics;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+
+/**
+ * Cucumber plugin feeding Timings with the duration of every scenario, step and hook,
+ * and exporting the summary when the run finishes.
+ *
+ * Register it in @CucumberOptions: plugin = {"appium.webdriver.metrics.TimingsPlugin"}.
+ */
+public class TimingsPlugin implements ConcurrentEventListener {
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepFinished.class, this::onStepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onScenarioFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> Timings.export());
+    }
+
+    private void onStepFinished(TestStepFinished event) {
+        long nanos = event.getResult().getDuration().toNanos();
+        if (event.getTestStep() instanceof PickleStepTestStep) {
+            PickleStepTestStep step = (PickleStepTestStep) event.getTestStep();
+            Timings.recordNanos("step", step.getStep().getKeyword().trim() + " " + step.getStep().getText(), nanos);
+        } else if (event.getTestStep() instanceof HookTestStep) {
+            Timings.recordNanos("hook", event.getTestStep().getCodeLocation(), nanos);
+        }
+    }
+
+    private void onScenarioFinished(TestCaseFinished event) {
+        Timings.recordNanos("scenario", event.getTestCase().getName(), event.getResult().getDuration().toNanos());
+    }
+}
@@ -0,0 +1,300 @@
+package appium.webdriver.reporting;
+
+import appium.webdriver.config.Config;
+import appium.webdriver.logging.TestLogger;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Attachment;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Screenshot Pipeline - compresses captured screenshots and writes them off the test thread.
+ *
+ * The caller grabs the PNG bytes once and hands them over; the Allure attachment is
+ * registered immediately (so it lands in the current step) while a single background thread
+ * downscales the image to screenshot.max.width, encodes it as screenshot.format (png by default,
+ * jpeg at screenshot.quality when opted in), and writes that one buffer both to target/screenshots
+ * and to the attachment. A frame identical to one already attached (same PNG bytes, e.g. the screen
+ * did not change between two captures) is not encoded or written again: the new attachment points
+ * at the earlier file. Identical frames are found by the length and chunk CRCs of the PNG, which the
+ * device already computed, so the test thread never hashes the full-resolution image. Call
+ * awaitPending() before the run ends so no file is lost (Hooks.afterAll does).
+ */
+public class ScreenshotPipeline {
+
+    private static final String SCREENSHOTS_DIR = "target/screenshots";
+    private static final int MAX_WIDTH = Config.getInt("screenshot.max.width", 720);
+    private static final String FORMAT = format(Config.getString("screenshot.format", "png"));
+    private static final float QUALITY = (float) Math.min(1.0, Math.max(0.1, Config.getDouble("screenshot.quality", 0.8)));
+    private static final boolean DEDUPE = Config.getBoolean("screenshot.dedupe", true);
+    private static final int DEDUPE_ENTRIES = 256;
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "screenshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Fingerprint of the captured PNG -> written attachment of the first frame with these bytes
+    private static final Map<String, Attachment> written = new LinkedHashMap<String, Attachment>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Attachment> eldest) {
+            return size() > DEDUPE_ENTRIES;
+        }
+    };
+    private static final AtomicLong capturedBytes = new AtomicLong();
+    private static final AtomicLong writtenBytes = new AtomicLong();
+    private static final AtomicLong duplicates = new AtomicLong();
+
+    /**
+     * Queues a PNG screenshot for the screenshots directory and the Allure report.
+     */
+    public static void submit(String name, byte[] png) {
+        submit(name, png, MAX_WIDTH);
+    }
+
+    /**
+     * Same as submit(name, png), downscaling to maxWidth instead of screenshot.max.width.
+     */
+    public static void submit(String name, byte[] png, int maxWidth) {
+        submit(name, png, maxWidth, true);
+    }
+
+    /**
+     * Queues an image that encode() already produced; it is written as it is.
+     */
+    public static void submitEncoded(String name, byte[] image) {
+        submit(name, image, 0, false);
+    }
+
+    private static void submit(String name, byte[] png, int maxWidth, boolean encode) {
+        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+        String sanitizedName = name.replaceAll("[^a-zA-Z0-9-_\\.]", "_");
+        String attachmentName = "📸 Screenshot: " + name;
+        capturedBytes.addAndGet(png.length);
+
+        String hash = DEDUPE ? fingerprint(png) + "@" + (encode ? String.valueOf(maxWidth) : "encoded") : null;
+        Attachment previous;
+        synchronized (written) {
+            previous = hash == null ? null : written.get(hash);
+        }
+        if (previous != null) {
+            duplicates.incrementAndGet();
+            TestLogger.debug("Screenshot '" + name + "' is identical to " + previous.getName() + ", not written again");
+            attachExisting(attachmentName, previous);
+            return;
+        }
+
+        File target = new File(SCREENSHOTS_DIR, sanitizedName + "_" + timestamp + "." + FORMAT);
+        // Attachment metadata must be registered on the thread that owns the Allure test context
+        String attachmentSource = prepareAttachment(attachmentName, "image/" + FORMAT, "." + FORMAT);
+
+        writer.submit(() -> {
+            byte[] image = encode ? encode(png, maxWidth) : png;
+            writtenBytes.addAndGet(image.length);
+            try {
+                target.getParentFile().mkdirs();
+                Files.write(target.toPath(), image);
+            } catch (IOException e) {
+                TestLogger.warn("Failed to write screenshot " + target.getPath() + ": " + e.getMessage());
+            }
+            if (attachmentSource != null) {
+                Allure.getLifecycle().writeAttachment(attachmentSource, new ByteArrayInputStream(image));
+                // Only an attachment that exists can be pointed at by later duplicates
+                if (hash != null) {
+                    synchronized (written) {
+                        written.put(hash, new Attachment().setName(attachmentName).setType("image/" + FORMAT).setSource(attachmentSource));
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Downscales a PNG screenshot to screenshot.max.width and re-encodes it as screenshot.format;
+     * returns the original bytes when there is nothing to do or the image cannot be decoded.
+     */
+    public static byte[] encode(byte[] png) {
+        return encode(png, MAX_WIDTH);
+    }
+
+    /**
+     * Same as encode(png), downscaling to maxWidth (0 = keep the resolution).
+     */
+    public static byte[] encode(byte[] png, int maxWidth) {
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            if (image == null) {
+                return png;
+            }
+            boolean scale = maxWidth > 0 && image.getWidth() > maxWidth;
+            if (!scale && "png".equals(FORMAT)) {
+                return png;
+            }
+            int width = scale ? maxWidth : image.getWidth();
+            int height = scale ? Math.max(1, Math.round(image.getHeight() * (float) maxWidth / image.getWidth())) : image.getHeight();
+            BufferedImage output = resize(image, width, height, "png".equals(FORMAT));
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(png.length / 4);
+            ImageWriter imageWriter = ImageIO.getImageWritersByFormatName(FORMAT).next();
+            try (ImageOutputStream stream = ImageIO.createImageOutputStream(bytes)) {
+                imageWriter.setOutput(stream);
+                ImageWriteParam parameters = imageWriter.getDefaultWriteParam();
+                if ("jpeg".equals(FORMAT)) {
+                    parameters.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    parameters.setCompressionQuality(QUALITY);
+                }
+                imageWriter.write(null, new IIOImage(output, null, null), parameters);
+            } finally {
+                imageWriter.dispose();
+            }
+            TestLogger.debug(String.format(Locale.ROOT, "Screenshot encoded: %dx%d png %dKB -> %dx%d %s %dKB",
+                    image.getWidth(), image.getHeight(), png.length / 1024, width, height, FORMAT, bytes.size() / 1024));
+            return bytes.toByteArray();
+        } catch (IOException | RuntimeException e) {
+            TestLogger.warn("Failed to encode screenshot, keeping the original PNG: " + e.getMessage());
+            return png;
+        }
+    }
+
+    /**
+     * Waits for every queued screenshot to be written and logs how much the encoding saved.
+     */
+    public static void awaitPending(long timeoutSeconds) {
+        try {
+            writer.submit(() -> { }).get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            TestLogger.warn("Timed out waiting for pending screenshots: " + e.getMessage());
+        }
+        if (capturedBytes.get() > 0) {
+            TestLogger.info("Screenshots: " + capturedBytes.get() / 1024 + "KB captured, " + writtenBytes.get() / 1024
+                    + "KB written as " + FORMAT + ", " + duplicates.get() + " duplicate frame(s) skipped");
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage image, int width, int height, boolean keepAlpha) {
+        // Halve in steps first: a single bilinear pass over a large factor drops detail (thin text)
+        BufferedImage current = image;
+        while (current.getWidth() / 2 >= width) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2, keepAlpha);
+        }
+        return draw(current, width, height, keepAlpha);
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, boolean keepAlpha) {
+        // JPEG has no alpha channel: draw onto an opaque image
+        BufferedImage target = new BufferedImage(width, height,
+                keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static String format(String configured) {
+        String format = configured.trim().toLowerCase(Locale.ROOT);
+        if ("jpg".equals(format)) {
+            return "jpeg";
+        }
+        if (!"png".equals(format) && !"jpeg".equals(format)) {
+            // ImageIO ships PNG and JPEG writers only (no WebP)
+            TestLogger.warn("Unsupported screenshot.format '" + configured + "', using png");
+            return "png";
+        }
+        return format;
+    }
+
+    /**
+     * Identifies an image by its length and the CRC of every PNG chunk; walking the chunk headers
+     * costs next to nothing next to hashing a full-resolution screenshot. Anything that is not a
+     * well-formed PNG (e.g. an already encoded JPEG frame, which is small) is hashed whole.
+     */
+    private static String fingerprint(byte[] image) {
+        if (image.length < PNG_SIGNATURE.length || !Arrays.equals(Arrays.copyOf(image, PNG_SIGNATURE.length), PNG_SIGNATURE)) {
+            return sha256(image);
+        }
+        long crcs = 0;
+        long offset = PNG_SIGNATURE.length;
+        while (offset < image.length) {
+            // Chunk layout: 4-byte data length, 4-byte type, data, 4-byte CRC over type and data
+            if (offset + 12 > image.length) {
+                return sha256(image);
+            }
+            long crcOffset = offset + 8 + (ByteBuffer.wrap(image, (int) offset, 4).getInt() & 0xffffffffL);
+            if (crcOffset + 4 > image.length) {
+                return sha256(image);
+            }
+            crcs = crcs * 31 + (ByteBuffer.wrap(image, (int) crcOffset, 4).getInt() & 0xffffffffL);
+            offset = crcOffset + 4;
+        }
+        return image.length + ":" + Long.toHexString(crcs);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    }
+
+    private static String prepareAttachment(String name, String type, String extension) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        if (!lifecycle.getCurrentTestCaseOrStep().isPresent()) {
+            return null;
+        }
+        return lifecycle.prepareAttachment(name, type, extension);
+    }
+
+    /**
+     * Adds an attachment to the current test case or step that reuses an already written file.
+     */
+    private static void attachExisting(String name, Attachment previous) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        String current = lifecycle.getCurrentTestCaseOrStep().orElse(null);
+        if (current == null || previous.getSource() == null) {
+            return;
+        }
+        Attachment attachment = new Attachment().setName(name).setType(previous.getType()).setSource(previous.getSource());
+        if (current.equals(lifecycle.getCurrentTestCase().orElse(null))) {
+            lifecycle.updateTestCase(current, testCase -> testCase.getAttachments().add(attachment));
+        } else {
+            lifecycle.updateStep(current, step -> step.getAttachments().add(attachment));
+        }
+    }
+}
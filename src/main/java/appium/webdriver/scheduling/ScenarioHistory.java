@@ -0,0 +1,247 @@
+package appium.webdriver.scheduling;
+
+import appium.webdriver.config.Config;
+import appium.webdriver.logging.TestLogger;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Scenario History - durations and outcomes of earlier runs, keyed by feature file and scenario name.
+ *
+ * The history of the run is kept in history.file (default scenario-history.json in the project
+ * directory, outside target/ so it survives mvn clean; cache it between pipeline runs). Hooks
+ * records every scenario into shared() and saves it when the suite ends. If the file does not
+ * exist yet, the Allure results in shard.history.dirs are imported instead (*-result.json of
+ * Cucumber scenarios, whose fullName is "<feature uri>:<line>"). The history file is this
+ * machine's own, so ShardPlanner, which needs the same history on every agent, reads only the
+ * Allure results through fromAllureResults().
+ * Keys ignore line numbers and directories ("Login.feature:Valid login") so edits above a
+ * scenario do not lose its history. Durations are an exponential moving average, so a scenario
+ * that got faster or slower is re-estimated within a few runs.
+ */
+public class ScenarioHistory {
+
+    private static final String DEFAULT_FILE = "scenario-history.json";
+    private static final int RECENT_RUNS = 10;
+    private static final double SMOOTHING = 0.3;
+
+    private static ScenarioHistory shared;
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+    private final Map<String, Entry> entries = new TreeMap<>();
+
+    /**
+     * The history of this JVM: history.file, or the Allure results when there is no file yet.
+     */
+    public static synchronized ScenarioHistory shared() {
+        if (shared == null) {
+            shared = new ScenarioHistory();
+            File file = getFile();
+            if (file.isFile()) {
+                shared.load(file);
+            } else {
+                shared.importAllureResults(getAllureDirectories());
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * A history built only from the Allure results in shard.history.dirs, ignoring history.file.
+     */
+    public static ScenarioHistory fromAllureResults() {
+        ScenarioHistory history = new ScenarioHistory();
+        history.importAllureResults(getAllureDirectories());
+        return history;
+    }
+
+    /**
+     * History key of a scenario: feature file name (without directories) and scenario name.
+     */
+    public static String key(String featureUri, String scenarioName) {
+        String path = featureUri.replace('\\', '/');
+        return path.substring(path.lastIndexOf('/') + 1) + ":" + scenarioName;
+    }
+
+    /**
+     * Records one run of a scenario.
+     */
+    public synchronized void record(String key, long durationMillis, boolean passed, long finishedAtMillis) {
+        Entry entry = entries.computeIfAbsent(key, k -> new Entry());
+        entry.expectedMillis = entry.runs == 0 ? durationMillis
+                : Math.round(SMOOTHING * durationMillis + (1 - SMOOTHING) * entry.expectedMillis);
+        entry.runs++;
+        entry.recent += passed ? "P" : "F";
+        if (entry.recent.length() > RECENT_RUNS) {
+            entry.recent = entry.recent.substring(entry.recent.length() - RECENT_RUNS);
+        }
+        entry.lastRunAt = finishedAtMillis;
+        if (!passed) {
+            entry.lastFailedAt = finishedAtMillis;
+        }
+    }
+
+    /**
+     * Expected duration of the scenario, or -1 if it never ran.
+     */
+    public synchronized long getExpectedMillis(String key) {
+        Entry entry = entries.get(key);
+        return entry == null ? -1 : entry.expectedMillis;
+    }
+
+    /**
+     * Median expected duration of all known scenarios, or -1 without history.
+     */
+    public synchronized long getMedianMillis() {
+        List<Long> durations = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            durations.add(entry.expectedMillis);
+        }
+        if (durations.isEmpty()) {
+            return -1;
+        }
+        Collections.sort(durations);
+        return durations.get(durations.size() / 2);
+    }
+
+    /**
+     * How many runs ago the scenario last failed (1 = the last run), or 0 if it did not fail
+     * in the recent runs or never ran.
+     */
+    public synchronized int getRunsSinceFailure(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return 0;
+        }
+        int lastFailure = entry.recent.lastIndexOf('F');
+        return lastFailure < 0 ? 0 : entry.recent.length() - lastFailure;
+    }
+
+    public synchronized boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Short hash of every scenario key and expected duration; equal histories have equal fingerprints.
+     */
+    public synchronized String fingerprint() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                digest.update((entry.getKey() + "=" + entry.getValue().expectedMillis + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.substring(0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Writes the history to history.file.
+     */
+    public synchronized void save() {
+        File file = getFile();
+        try {
+            if (file.getAbsoluteFile().getParentFile() != null) {
+                file.getAbsoluteFile().getParentFile().mkdirs();
+            }
+            mapper.writeValue(file, entries);
+            TestLogger.debug("Scenario history saved to " + file.getPath() + " (" + entries.size() + " scenarios)");
+        } catch (IOException e) {
+            TestLogger.warn("Failed to save scenario history to " + file.getPath() + ": " + e.getMessage());
+        }
+    }
+
+    private static File getFile() {
+        return new File(Config.getString("history.file", DEFAULT_FILE));
+    }
+
+    private static List<File> getAllureDirectories() {
+        List<File> directories = new ArrayList<>();
+        for (String directory : Config.getString("shard.history.dirs", "target/allure-results").split(",")) {
+            if (!directory.trim().isEmpty()) {
+                directories.add(new File(directory.trim()));
+            }
+        }
+        return directories;
+    }
+
+    private void load(File file) {
+        try {
+            entries.putAll(mapper.readValue(file, new TypeReference<Map<String, Entry>>() { }));
+            TestLogger.debug("Scenario history: " + entries.size() + " scenarios from " + file.getPath());
+        } catch (IOException e) {
+            TestLogger.warn("Ignoring unreadable scenario history " + file.getPath() + ": " + e.getMessage());
+        }
+    }
+
+    private void importAllureResults(List<File> directories) {
+        List<JsonNode> results = new ArrayList<>();
+        for (File directory : directories) {
+            File[] files = directory.listFiles((dir, name) -> name.endsWith("-result.json"));
+            if (files == null) {
+                continue;
+            }
+            for (File file : files) {
+                try {
+                    JsonNode json = mapper.readTree(file);
+                    String fullName = json.path("fullName").asText("");
+                    int line = fullName.lastIndexOf(':');
+                    if (line >= 0 && fullName.substring(0, line).endsWith(".feature")
+                            && json.path("stop").asLong() >= json.path("start").asLong()) {
+                        results.add(json);
+                    }
+                } catch (IOException e) {
+                    TestLogger.debug("Skipping unreadable Allure result " + file.getName() + ": " + e.getMessage());
+                }
+            }
+        }
+        // Oldest first, so the recent outcomes and moving averages end with the latest run
+        results.sort(Comparator.comparingLong(json -> json.path("start").asLong()));
+        for (JsonNode json : results) {
+            String fullName = json.path("fullName").asText();
+            String status = json.path("status").asText("");
+            record(key(fullName.substring(0, fullName.lastIndexOf(':')), json.path("name").asText()),
+                    json.path("stop").asLong() - json.path("start").asLong(),
+                    !"failed".equals(status) && !"broken".equals(status), json.path("stop").asLong());
+        }
+        TestLogger.debug("Scenario history: " + entries.size() + " scenarios from " + results.size() + " Allure results");
+    }
+
+    private static class Entry {
+        private int runs;
+        private long expectedMillis;
+        // Outcomes of the last runs, oldest first: P = passed, F = failed
+        private String recent = "";
+        private long lastRunAt;
+        private long lastFailedAt;
+    }
+}
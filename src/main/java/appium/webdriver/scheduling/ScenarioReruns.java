@@ -0,0 +1,80 @@
+package appium.webdriver.scheduling;
+
+import appium.webdriver.config.Config;
+import appium.webdriver.logging.TestLogger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Scenario Reruns - bookkeeping for the in-JVM rerun stage of failed scenarios.
+ *
+ * After the main run, the runners re-execute each failed scenario up to rerun.count more times
+ * in the same JVM, on the running Appium server and the existing driver session (0 disables
+ * reruns). A scenario that passes on a rerun is reported as flaky, one that fails every attempt
+ * as a hard failure; report() logs both lists at suite end (Hooks.afterAll calls it).
+ * Hooks asks isRerun() to give a rerun a clean app state first.
+ */
+public final class ScenarioReruns {
+
+    private static final ThreadLocal<Integer> currentAttempt = ThreadLocal.withInitial(() -> 0);
+    private static final List<String> flaky = Collections.synchronizedList(new ArrayList<>());
+    private static final List<String> hardFailures = Collections.synchronizedList(new ArrayList<>());
+
+    private ScenarioReruns() {
+    }
+
+    /**
+     * Maximum number of reruns of a failed scenario (rerun.count, default 1).
+     */
+    public static int getMaxReruns() {
+        return Math.max(0, Config.getInt("rerun.count", 1));
+    }
+
+    /**
+     * Marks the calling thread's next scenario as rerun number attempt (0 = first run).
+     */
+    public static void startAttempt(int attempt) {
+        currentAttempt.set(attempt);
+    }
+
+    public static void endAttempt() {
+        currentAttempt.remove();
+    }
+
+    public static boolean isRerun() {
+        return currentAttempt.get() > 0;
+    }
+
+    public static int getAttempt() {
+        return currentAttempt.get();
+    }
+
+    public static void recordFlaky(String scenario, int reruns) {
+        flaky.add(scenario);
+        TestLogger.warn("Flaky: '" + scenario + "' passed on rerun " + reruns);
+    }
+
+    public static void recordHardFailure(String scenario, int reruns) {
+        hardFailures.add(scenario);
+        TestLogger.fail("Hard failure: '" + scenario + "' failed on all " + (reruns + 1) + " attempts");
+    }
+
+    public static void report() {
+        if (flaky.isEmpty() && hardFailures.isEmpty()) {
+            return;
+        }
+        TestLogger.info("Reruns: " + flaky.size() + " flaky (passed on rerun), " + hardFailures.size() + " hard failure(s)");
+        synchronized (flaky) {
+            for (String scenario : flaky) {
+                TestLogger.warn("  flaky: " + scenario);
+            }
+        }
+        synchronized (hardFailures) {
+            for (String scenario : hardFailures) {
+                TestLogger.fail("  hard failure: " + scenario);
+            }
+        }
+    }
+}
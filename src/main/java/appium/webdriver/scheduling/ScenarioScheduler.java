@@ -0,0 +1,65 @@
+package appium.webdriver.scheduling;
+
+import appium.webdriver.config.Config;
+import appium.webdriver.logging.TestLogger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Scenario Scheduler - orders the scenarios of a run so that red builds turn red early and
+ * parallel workers finish together.
+ *
+ * With schedule.order=failfast (default) scenarios run in this order:
+ *   1. scenarios that failed in the recent runs, the most recent failure first
+ *   2. scenarios without history (new or renamed)
+ *   3. everything else
+ * and within each group the longest expected duration first, so no long scenario is left for
+ * the end of a parallel run. Equal scenarios keep their feature file order.
+ * schedule.order=file keeps Cucumber's order.
+ */
+public final class ScenarioScheduler {
+
+    private ScenarioScheduler() {
+    }
+
+    public static <T> List<T> order(List<T> items, Function<T, String> keyOf) {
+        if ("file".equalsIgnoreCase(Config.getString("schedule.order", "failfast"))) {
+            return items;
+        }
+        return order(items, keyOf, ScenarioHistory.shared());
+    }
+
+    public static <T> List<T> order(List<T> items, Function<T, String> keyOf, ScenarioHistory history) {
+        List<T> ordered = new ArrayList<>(items);
+        // List.sort is stable, so ties keep the feature file order
+        ordered.sort(Comparator.<T>comparingInt(item -> group(history, keyOf.apply(item)))
+                .thenComparingInt(item -> recency(history, keyOf.apply(item)))
+                .thenComparingLong(item -> -history.getExpectedMillis(keyOf.apply(item))));
+
+        int recentFailures = 0;
+        for (T item : items) {
+            if (history.getRunsSinceFailure(keyOf.apply(item)) > 0) {
+                recentFailures++;
+            }
+        }
+        TestLogger.info("Scheduled " + ordered.size() + " scenarios fail-fast (" + recentFailures
+                + " recently failed first), starting with: " + (ordered.isEmpty() ? "-" : keyOf.apply(ordered.get(0))));
+        return ordered;
+    }
+
+    private static int group(ScenarioHistory history, String key) {
+        if (history.getRunsSinceFailure(key) > 0) {
+            return 0;
+        }
+        return history.contains(key) ? 2 : 1;
+    }
+
+    // Runs since the last failure; recent failures first
+    private static int recency(ScenarioHistory history, String key) {
+        int runsSinceFailure = history.getRunsSinceFailure(key);
+        return runsSinceFailure > 0 ? runsSinceFailure : Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,111 @@
+package appium.webdriver.scheduling;
+
+import appium.webdriver.config.Config;
+import appium.webdriver.config.RunConfig;
+import appium.webdriver.logging.TestLogger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Shard Planner - splits the scenarios of a run across pipeline agents with balanced runtimes.
+ *
+ * Every agent runs the same suite with shard.index (1-based) and shard.count set, e.g. from
+ * System.JobPositionInPhase / System.TotalJobsInPhase. The scenarios are bin-packed into
+ * shard.count shards by expected duration (longest first, each into the least loaded shard).
+ * Scenarios without history count as the median known duration (shard.default.duration.ms
+ * without any history).
+ *
+ * The plan depends only on the scenario list and the history, so the history must be the same on
+ * every agent: it is read from the Allure results in shard.history.dirs, which the pipeline fills
+ * with the combined results of the previous run, never from the agent's own history.file. Each
+ * agent logs the history's fingerprint; set shard.history.fingerprint (e.g. from the job that
+ * published the results) to fail a shard whose history differs instead of running a diverging plan.
+ */
+public final class ShardPlanner {
+
+    private static final long DEFAULT_DURATION_MILLIS = 60_000;
+
+    private ShardPlanner() {
+    }
+
+    /**
+     * The items of the configured shard, in their original order; all items when sharding is off.
+     */
+    public static <T> List<T> selectCurrentShard(List<T> items, Function<T, String> keyOf) {
+        RunConfig config = RunConfig.get();
+        if (config.getShardCount() <= 1) {
+            return items;
+        }
+        ScenarioHistory history = ScenarioHistory.fromAllureResults();
+        String fingerprint = history.fingerprint();
+        String expected = Config.getString("shard.history.fingerprint", null);
+        TestLogger.info("Shard plan history: " + history.size() + " scenarios, fingerprint " + fingerprint);
+        if (expected != null && !expected.equalsIgnoreCase(fingerprint)) {
+            throw new IllegalStateException("Shard " + config.getShardIndex() + "/" + config.getShardCount()
+                    + " planned from history " + fingerprint + " but shard.history.fingerprint is " + expected
+                    + "; every agent must read the same results in shard.history.dirs");
+        }
+        return select(items, keyOf, history, config.getShardIndex(), config.getShardCount());
+    }
+
+    /**
+     * The items of shard index (1-based) out of count, in their original order.
+     */
+    public static <T> List<T> select(List<T> items, Function<T, String> keyOf, ScenarioHistory history, int index, int count) {
+        long median = history.getMedianMillis();
+        long fallback = median >= 0 ? median : Config.getLong("shard.default.duration.ms", DEFAULT_DURATION_MILLIS);
+
+        // Longest processing time first; ties broken by key so every agent builds the same plan
+        List<Integer> order = new ArrayList<>();
+        long[] expected = new long[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            long millis = history.getExpectedMillis(keyOf.apply(items.get(i)));
+            expected[i] = millis >= 0 ? millis : fallback;
+            order.add(i);
+        }
+        order.sort(Comparator.<Integer>comparingLong(i -> -expected[i])
+                .thenComparing(i -> keyOf.apply(items.get(i)))
+                .thenComparingInt(i -> i));
+
+        long[] loads = new long[count];
+        List<Set<Integer>> shards = new ArrayList<>();
+        for (int shard = 0; shard < count; shard++) {
+            shards.add(new HashSet<>());
+        }
+        for (int i : order) {
+            int lightest = 0;
+            for (int shard = 1; shard < count; shard++) {
+                if (loads[shard] < loads[lightest]) {
+                    lightest = shard;
+                }
+            }
+            shards.get(lightest).add(i);
+            loads[lightest] += expected[i];
+        }
+
+        Set<Integer> selected = shards.get(index - 1);
+        List<T> result = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (selected.contains(i)) {
+                result.add(items.get(i));
+            }
+        }
+        TestLogger.info("Shard " + index + "/" + count + ": " + result.size() + " of " + items.size()
+                + " scenarios, expected " + formatMillis(loads[index - 1]) + " (all shards: "
+                + Arrays.stream(loads).mapToObj(ShardPlanner::formatMillis).collect(Collectors.joining(", "))
+                + "; history for " + history.size() + " scenarios)");
+        return result;
+    }
+
+    private static String formatMillis(long millis) {
+        long seconds = millis / 1000;
+        return seconds >= 60 ? seconds / 60 + "m" + String.format("%02d", seconds % 60) + "s" : seconds + "s";
+    }
+}
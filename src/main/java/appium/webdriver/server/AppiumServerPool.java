@@ -0,0 +1,143 @@
+package appium.webdriver.server;
+
+import appium.webdriver.config.Config;
+import appium.webdriver.logging.TestLogger;
+import io.appium.java_client.service.local.AppiumDriverLocalService;
+import io.appium.java_client.service.local.AppiumServiceBuilder;
+
+import java.io.File;
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Appium Server Pool - one local AppiumDriverLocalService per worker.
+ *
+ * Worker N gets its own server on appium.port.base + N and its own UiAutomator2 systemPort,
+ * chromedriverPort and mjpegServerPort (each base + N), so sessions on different devices never
+ * share a Node process or a forwarded port. Each server logs to target/appium-logs/appium-worker-N.log.
+ * Servers are started concurrently and stopped together in Hooks.afterAll. DriverManager
+ * gives every device a fixed slot N, so a device's session always lives on server N.
+ */
+public class AppiumServerPool {
+
+    private static final int DEFAULT_APPIUM_PORT = 4723;
+    private static final int DEFAULT_SYSTEM_PORT = 8200;
+    private static final int DEFAULT_CHROMEDRIVER_PORT = 9515;
+    private static final int DEFAULT_MJPEG_SERVER_PORT = 7810;
+    private static final String LOG_DIRECTORY = "target/appium-logs";
+
+    private static final Map<Integer, AppiumDriverLocalService> services = new ConcurrentHashMap<>();
+
+    /**
+     * Starts servers for workers 0..workerCount-1 in parallel, skipping any already running.
+     */
+    public static synchronized void startAll(int workerCount) {
+        List<Integer> toStart = new ArrayList<>();
+        for (int worker = 0; worker < workerCount; worker++) {
+            AppiumDriverLocalService service = services.get(worker);
+            if (service == null || !service.isRunning()) {
+                toStart.add(worker);
+            }
+        }
+        if (toStart.isEmpty()) {
+            return;
+        }
+
+        TestLogger.server("Starting " + toStart.size() + " local Appium server(s)...");
+        ExecutorService executor = Executors.newFixedThreadPool(toStart.size());
+        try {
+            List<Future<?>> startups = new ArrayList<>();
+            for (int worker : toStart) {
+                startups.add(executor.submit(() -> start(worker)));
+            }
+            for (Future<?> startup : startups) {
+                startup.get();
+            }
+        } catch (Exception e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new RuntimeException("Failed to start Appium server pool: " + cause.getMessage(), cause);
+        } finally {
+            executor.shutdown();
+        }
+        TestLogger.pass("Local Appium server pool started (" + services.size() + " server(s))");
+    }
+
+    /**
+     * URL of the worker's server, starting it on demand if the pool was sized too small.
+     */
+    public static URL getUrl(int worker) {
+        AppiumDriverLocalService service = services.get(worker);
+        if (service == null || !service.isRunning()) {
+            synchronized (AppiumServerPool.class) {
+                service = services.get(worker);
+                if (service == null || !service.isRunning()) {
+                    service = start(worker);
+                }
+            }
+        }
+        return service.getUrl();
+    }
+
+    public static boolean isRunning(int worker) {
+        AppiumDriverLocalService service = services.get(worker);
+        return service != null && service.isRunning();
+    }
+
+    /**
+     * Stops every server in the pool.
+     */
+    public static synchronized void stopAll() {
+        for (Map.Entry<Integer, AppiumDriverLocalService> entry : services.entrySet()) {
+            try {
+                entry.getValue().stop();
+                TestLogger.server("Stopped Appium server for worker #" + entry.getKey());
+            } catch (Exception e) {
+                TestLogger.warn("Failed to stop Appium server for worker #" + entry.getKey() + ": " + e.getMessage());
+            }
+        }
+        services.clear();
+    }
+
+    public static int getSystemPort(int worker) {
+        return getPortBase("systemPort.base", DEFAULT_SYSTEM_PORT) + worker;
+    }
+
+    public static int getChromedriverPort(int worker) {
+        return getPortBase("chromedriverPort.base", DEFAULT_CHROMEDRIVER_PORT) + worker;
+    }
+
+    public static int getMjpegServerPort(int worker) {
+        return getPortBase("mjpegServerPort.base", DEFAULT_MJPEG_SERVER_PORT) + worker;
+    }
+
+    private static AppiumDriverLocalService start(int worker) {
+        int port = getPortBase("appium.port.base", DEFAULT_APPIUM_PORT) + worker;
+        File logDirectory = new File(LOG_DIRECTORY);
+        logDirectory.mkdirs();
+
+        TestLogger.server("Starting Appium server for worker #" + worker + " on port " + port);
+        AppiumDriverLocalService service = new AppiumServiceBuilder()
+                .withIPAddress("127.0.0.1")
+                .usingPort(port)
+                // Each server only ever hosts the session of its own device slot
+                .withArgument(() -> "--session-override")
+                .withLogFile(new File(logDirectory, "appium-worker-" + worker + ".log"))
+                .withTimeout(Duration.ofSeconds(60))
+                .build();
+        service.start();
+        services.put(worker, service);
+        TestLogger.pass("Appium server for worker #" + worker + " started at " + service.getUrl());
+        return service;
+    }
+
+    private static int getPortBase(String key, int defaultPort) {
+        return Config.getInt(key, defaultPort);
+    }
+}
@@ -0,0 +1,742 @@
+package appium.webdriver.server;
+
+import appium.webdriver.config.Config;
+import appium.webdriver.extensions.PageSnapshot;
+import appium.webdriver.logging.TestLogger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.By;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mock Appium Server - an in-process W3C/Appium endpoint for running the framework without a device.
+ *
+ * The "app" is a set of scripted screens (UiAutomator2 page sources). Element lookups (id, class name,
+ * accessibility id, XPath and simple UiSelector queries) are resolved against the current screen;
+ * clicking an element with a scripted transition moves the session to another screen, back returns
+ * to the previous one, and app state/activity follow activateApp, terminateApp and startActivity.
+ * The session also writes a few logcat lines (process start, screens, clicks) for the "logcat" log type.
+ * Every command can be given a fixed latency, so slow devices are reproduced deterministically.
+ *
+ * With appium.mock=true DriverManager starts the shared instance and connects to it instead of
+ * local Appium servers; any other run can point at a standalone instance through appium.server.url
+ * and use.external.appium (APPIUM_SERVER_URL / USE_EXTERNAL_APPIUM).
+ *
+ * A script directory (appium.mock.script, filesystem or classpath) holds script.properties:
+ *   start=login                      first screen of a new session
+ *   screen.login=login.xml           page source file of a screen, relative to the directory
+ *   activity.login=.LoginActivity    activity reported while on the screen
+ *   click.login_button=today         clicking resource-id ...:id/login_button shows "today"
+ *   click.login.next=password        the same, only while on the "login" screen
+ *   latency.default.ms=50            latency of every command...
+ *   latency.findElement.ms=200       ...unless set per command (names as in commandName())
+ *
+ * Usage:
+ *   MockAppiumServer server = MockAppiumServer.start(0)
+ *           .screen("login", loginXml, ".LoginActivity").onClick("login_button", "today");
+ *   new AndroidDriver(server.getUrl(), caps);
+ */
+public class MockAppiumServer {
+
+    private static final String ELEMENT_KEY = "element-6066-11e4-a52e-4f735466cecf";
+    private static final String EMPTY_SCREEN = "<?xml version='1.0' encoding='UTF-8' standalone='yes' ?><hierarchy rotation=\"0\"/>";
+    private static final Pattern UI_SELECTOR = Pattern.compile("\\.(resourceId|className|description|text|textContains)\\(\"((?:[^\"\\\\]|\\\\.)*)\"\\)");
+    private static final Pattern SESSION_PATH = Pattern.compile("^/session/([^/]+)(/.*)?$");
+    private static final Pattern ELEMENT_PATH = Pattern.compile("^/element/([^/]+)(/.*)?$");
+
+    private static MockAppiumServer shared;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, String> screens = new ConcurrentHashMap<>();
+    private final Map<String, String> activities = new ConcurrentHashMap<>();
+    private final Map<String, String> transitions = new ConcurrentHashMap<>();
+    private final Map<String, Long> latencies = new ConcurrentHashMap<>();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final String screenshotBase64 = blankScreenshot();
+    private volatile String startScreen = "home";
+
+    private MockAppiumServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "mock-appium");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        screens.put(startScreen, EMPTY_SCREEN);
+    }
+
+    /**
+     * Starts a server on the given port (0 picks a free one) with a single empty screen.
+     */
+    public static MockAppiumServer start(int port) {
+        try {
+            MockAppiumServer mock = new MockAppiumServer(port);
+            mock.server.start();
+            TestLogger.server("Mock Appium server listening on " + mock.getUrl());
+            return mock;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start mock Appium server on port " + port + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * The instance DriverManager uses when appium.mock=true, started on appium.mock.port with
+     * appium.mock.script loaded on first use.
+     */
+    public static synchronized MockAppiumServer getShared() {
+        if (shared == null) {
+            shared = start(Config.getInt("appium.mock.port", 0));
+            String script = Config.getString("appium.mock.script", "");
+            if (!script.isEmpty()) {
+                shared.loadScript(script);
+            }
+        }
+        return shared;
+    }
+
+    public static synchronized void stopShared() {
+        if (shared != null) {
+            shared.stop();
+            shared = null;
+        }
+    }
+
+    public MockAppiumServer screen(String name, String pageSource) {
+        screens.put(name, pageSource);
+        return this;
+    }
+
+    public MockAppiumServer screen(String name, String pageSource, String activity) {
+        activities.put(name, activity);
+        return screen(name, pageSource);
+    }
+
+    /**
+     * First screen of every new session (and after startActivity/activateApp from a stopped app).
+     */
+    public MockAppiumServer startScreen(String name) {
+        startScreen = name;
+        return this;
+    }
+
+    /**
+     * Clicking an element whose resource-id is (or ends with ":id/") resourceId shows the screen.
+     */
+    public MockAppiumServer onClick(String resourceId, String screenName) {
+        transitions.put(resourceName(resourceId), screenName);
+        return this;
+    }
+
+    /**
+     * Same as onClick(resourceId, screenName), only while fromScreen is shown.
+     */
+    public MockAppiumServer onClick(String fromScreen, String resourceId, String screenName) {
+        transitions.put(fromScreen + "." + resourceName(resourceId), screenName);
+        return this;
+    }
+
+    /**
+     * Fixed latency for a command name (see commandName()), or "default" for every other command.
+     */
+    public MockAppiumServer latency(String command, long millis) {
+        latencies.put(command, millis);
+        return this;
+    }
+
+    /**
+     * Loads script.properties and its screens from a directory on disk or on the classpath.
+     */
+    public MockAppiumServer loadScript(String directory) {
+        Properties script = new Properties();
+        try (InputStream inputStream = openScriptFile(directory, "script.properties")) {
+            script.load(inputStream);
+            for (String key : script.stringPropertyNames()) {
+                String value = script.getProperty(key).trim();
+                if (key.startsWith("screen.")) {
+                    try (InputStream source = openScriptFile(directory, value)) {
+                        screen(key.substring("screen.".length()), new String(source.readAllBytes(), StandardCharsets.UTF_8));
+                    }
+                } else if (key.startsWith("activity.")) {
+                    activities.put(key.substring("activity.".length()), value);
+                } else if (key.startsWith("click.")) {
+                    transitions.put(key.substring("click.".length()), value);
+                } else if (key.startsWith("latency.") && key.endsWith(".ms")) {
+                    latency(key.substring("latency.".length(), key.length() - ".ms".length()), Long.parseLong(value));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            throw new RuntimeException("Failed to load mock Appium script " + directory + ": " + e.getMessage(), e);
+        }
+        startScreen(script.getProperty("start", startScreen).trim());
+        if (!screens.containsKey(startScreen)) {
+            throw new IllegalStateException("Mock Appium script " + directory + " has no screen '" + startScreen + "'");
+        }
+        TestLogger.server("Mock Appium script loaded from " + directory + " (" + screens.size() + " screens)");
+        return this;
+    }
+
+    public URL getUrl() {
+        try {
+            return new URL("http://127.0.0.1:" + server.getAddress().getPort());
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Requests served so far, across all sessions.
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        TestLogger.server("Mock Appium server stopped after " + requestCount.get() + " requests");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        try {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath().replaceAll("/+$", "");
+            Map<String, Object> body = readBody(exchange);
+            Object value;
+            if (path.equals("/status")) {
+                value = Map.of("ready", true, "message", "Mock Appium server");
+            } else if (path.equals("/session") && method.equals("POST")) {
+                delay("newSession");
+                value = newSession(body);
+            } else {
+                Matcher matcher = SESSION_PATH.matcher(path);
+                if (!matcher.matches()) {
+                    throw new MockError(404, "unknown command", method + " " + path);
+                }
+                Session session = sessions.get(matcher.group(1));
+                if (session == null) {
+                    throw new MockError(404, "invalid session id", "No session " + matcher.group(1));
+                }
+                String command = matcher.group(2) == null ? "" : matcher.group(2);
+                String name = commandName(method, command, body);
+                delay(name);
+                value = session.execute(method, command, name, body);
+            }
+            respond(exchange, 200, Collections.singletonMap("value", value));
+        } catch (MockError e) {
+            Map<String, Object> error = new LinkedHashMap<>();
+            error.put("error", e.error);
+            error.put("message", e.getMessage());
+            error.put("stacktrace", "");
+            respond(exchange, e.status, Collections.singletonMap("value", error));
+        } catch (Exception e) {
+            Map<String, Object> error = new LinkedHashMap<>();
+            error.put("error", "unknown error");
+            error.put("message", String.valueOf(e));
+            error.put("stacktrace", "");
+            respond(exchange, 500, Collections.singletonMap("value", error));
+        }
+    }
+
+    private Object newSession(Map<String, Object> body) {
+        Map<String, Object> capabilities = new LinkedHashMap<>();
+        Object requested = body.get("capabilities");
+        if (requested instanceof Map) {
+            Object alwaysMatch = ((Map<?, ?>) requested).get("alwaysMatch");
+            if (alwaysMatch instanceof Map) {
+                ((Map<?, ?>) alwaysMatch).forEach((key, value) -> capabilities.put(String.valueOf(key), value));
+            }
+        }
+        capabilities.putIfAbsent("platformName", "Android");
+        Session session = new Session(String.valueOf(capabilities.getOrDefault("appium:appPackage", "")));
+        sessions.put(session.id, session);
+
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("sessionId", session.id);
+        value.put("capabilities", capabilities);
+        return value;
+    }
+
+    /**
+     * Command name used for latencies, e.g. findElement, click, getPageSource, "mobile: queryAppState".
+     */
+    private static String commandName(String method, String command, Map<String, Object> body) {
+        if (command.isEmpty()) {
+            return "deleteSession";
+        }
+        if (command.startsWith("/execute/")) {
+            return String.valueOf(body.get("script")).trim();
+        }
+        Matcher element = ELEMENT_PATH.matcher(command);
+        if (element.matches() && element.group(2) != null) {
+            String action = element.group(2).substring(1);
+            switch (action.contains("/") ? action.substring(0, action.indexOf('/')) : action) {
+                case "value":
+                    return "sendKeys";
+                case "text":
+                    return "getText";
+                case "attribute":
+                    return "getAttribute";
+                case "displayed":
+                    return "isDisplayed";
+                case "element":
+                    return "findElement";
+                case "elements":
+                    return "findElements";
+                default:
+                    return action;
+            }
+        }
+        switch (command) {
+            case "/element":
+                return "findElement";
+            case "/elements":
+                return "findElements";
+            case "/source":
+                return "getPageSource";
+            default:
+                String[] parts = command.split("/");
+                return parts[parts.length - 1];
+        }
+    }
+
+    private void delay(String command) {
+        long millis = latencies.getOrDefault(command, latencies.getOrDefault("default", 0L));
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private String transitionFor(String screen, String resourceId) {
+        if (resourceId == null) {
+            return null;
+        }
+        String name = resourceName(resourceId);
+        String target = transitions.get(screen + "." + name);
+        return target != null ? target : transitions.get(name);
+    }
+
+    private static String resourceName(String resourceId) {
+        int separator = resourceId.indexOf(":id/");
+        return separator < 0 ? resourceId : resourceId.substring(separator + ":id/".length());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        byte[] bytes = exchange.getRequestBody().readAllBytes();
+        if (bytes.length == 0) {
+            return Collections.emptyMap();
+        }
+        return mapper.readValue(bytes, Map.class);
+    }
+
+    private void respond(HttpExchange exchange, int status, Object payload) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(payload);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+
+    private static InputStream openScriptFile(String directory, String name) throws IOException {
+        File file = new File(directory, name);
+        if (file.isFile()) {
+            return Files.newInputStream(file.toPath());
+        }
+        InputStream resource = MockAppiumServer.class.getClassLoader().getResourceAsStream(directory + "/" + name);
+        if (resource == null) {
+            throw new IOException(name + " not found in " + directory);
+        }
+        return resource;
+    }
+
+    // UiSelector chains ("new UiSelector().resourceId(\"x\").text(\"y\");...") as one XPath union
+    private static By uiSelectorToXPath(String selectors) {
+        StringBuilder xpath = new StringBuilder();
+        for (String selector : selectors.split(";")) {
+            if (selector.trim().isEmpty()) {
+                continue;
+            }
+            StringBuilder predicate = new StringBuilder();
+            Matcher matcher = UI_SELECTOR.matcher(selector);
+            while (matcher.find()) {
+                String literal = xpathLiteral(matcher.group(2).replace("\\\"", "\"").replace("\\\\", "\\"));
+                predicate.append(predicate.length() == 0 ? "" : " and ");
+                switch (matcher.group(1)) {
+                    case "resourceId":
+                        predicate.append("@resource-id=").append(literal);
+                        break;
+                    case "className":
+                        predicate.append("@class=").append(literal);
+                        break;
+                    case "description":
+                        predicate.append("@content-desc=").append(literal);
+                        break;
+                    case "text":
+                        predicate.append("@text=").append(literal);
+                        break;
+                    default:
+                        predicate.append("contains(@text, ").append(literal).append(")");
+                }
+            }
+            if (predicate.length() == 0) {
+                throw new MockError(400, "invalid selector", "Unsupported UiSelector: " + selector);
+            }
+            xpath.append(xpath.length() == 0 ? "" : " | ").append("//*[").append(predicate).append("]");
+        }
+        return By.xpath(xpath.toString());
+    }
+
+    private static String xpathLiteral(String value) {
+        return value.contains("'") ? "\"" + value + "\"" : "'" + value + "'";
+    }
+
+    private static String blankScreenshot() {
+        try {
+            ByteArrayOutputStream png = new ByteArrayOutputStream();
+            ImageIO.write(new BufferedImage(108, 240, BufferedImage.TYPE_INT_RGB), "png", png);
+            return Base64.getEncoder().encodeToString(png.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * One W3C session: current screen, navigation history, app state and the elements handed out.
+     */
+    private class Session {
+
+        private final String id = UUID.randomUUID().toString();
+        private final String appPackage;
+        private final Deque<String> history = new ArrayDeque<>();
+        private final Map<String, PageSnapshot.Node> elements = new ConcurrentHashMap<>();
+        // Text typed into fields, by resource-id
+        private final Map<String, String> values = new ConcurrentHashMap<>();
+        private final AtomicLong nextElementId = new AtomicLong();
+        private String screen = startScreen;
+        private int appState = 4;
+        private final Deque<Map<String, Object>> logcat = new ArrayDeque<>();
+        private int appPid = 4000 + (int) (Math.random() * 1000);
+
+        private Session(String appPackage) {
+            this.appPackage = appPackage;
+            log(1000, "I", "ActivityManager", "Start proc " + appPid + ":" + appPackage + "/u0a123 for activity");
+        }
+
+        private synchronized Object execute(String method, String command, String name, Map<String, Object> body) {
+            if (command.isEmpty() && method.equals("DELETE")) {
+                sessions.remove(id);
+                return null;
+            }
+            Matcher element = ELEMENT_PATH.matcher(command);
+            if (element.matches() && element.group(2) != null) {
+                return executeOnElement(element.group(1), element.group(2), name, body);
+            }
+            switch (name) {
+                case "findElement":
+                    return toReference(findFirst(body));
+                case "findElements":
+                    List<PageSnapshot.Node> found = find(body);
+                    Object[] references = new Object[found.size()];
+                    for (int i = 0; i < references.length; i++) {
+                        references[i] = toReference(found.get(i));
+                    }
+                    return references;
+                case "getPageSource":
+                    return pageSource();
+                case "screenshot":
+                    return screenshotBase64;
+                case "back":
+                    back();
+                    return null;
+                case "current_activity":
+                case "mobile: getCurrentActivity":
+                    return activities.getOrDefault(screen, ".MainActivity");
+                case "current_package":
+                case "mobile: getCurrentPackage":
+                    return appPackage;
+                case "app_state":
+                case "mobile: queryAppState":
+                    return appState;
+                case "activate_app":
+                case "mobile: activateApp":
+                    if (appState < 3) {
+                        appPid++;
+                        log(1000, "I", "ActivityManager", "Start proc " + appPid + ":" + appPackage + "/u0a123 for activity");
+                        show(startScreen);
+                    }
+                    appState = 4;
+                    return null;
+                case "start_activity":
+                case "mobile: startActivity":
+                    appState = 4;
+                    show(startScreen);
+                    return null;
+                case "terminate_app":
+                case "mobile: terminateApp":
+                    boolean wasRunning = appState > 1;
+                    if (wasRunning) {
+                        log(1000, "I", "ActivityManager", "Force stopping " + appPackage + " appid=10123 user=0: from pid " + appPid);
+                    }
+                    appState = 1;
+                    elements.clear();
+                    return wasRunning;
+                case "log":
+                    List<Map<String, Object>> entries = new ArrayList<>(logcat);
+                    logcat.clear();
+                    return "logcat".equals(body.get("type")) ? entries : Collections.emptyList();
+                case "types":
+                    return Collections.singletonList("logcat");
+                case "mobile: pressKey":
+                    if (Integer.valueOf(4).equals(scriptArgument(body, "keycode"))) {
+                        back();
+                    }
+                    return null;
+                case "mobile: type":
+                case "mobile: replaceElementValue":
+                    Object elementId = scriptArgument(body, "elementId");
+                    String text = String.valueOf(scriptArgument(body, "text"));
+                    PageSnapshot.Node target = elementId != null ? element(String.valueOf(elementId)) : null;
+                    String key = target != null ? target.getResourceId() : "focused";
+                    values.put(key, name.endsWith("replaceElementValue") ? text : values.getOrDefault(key, "") + text);
+                    return null;
+                default:
+                    return null;
+            }
+        }
+
+        private Object executeOnElement(String elementId, String action, String name, Map<String, Object> body) {
+            PageSnapshot.Node node = element(elementId);
+            switch (name) {
+                case "click":
+                    log(appPid, "D", "ViewRootImpl", "click " + node);
+                    String target = transitionFor(screen, node.getResourceId());
+                    if (target != null) {
+                        show(target);
+                    }
+                    return null;
+                case "sendKeys":
+                    values.merge(String.valueOf(node.getResourceId()), String.valueOf(body.getOrDefault("text", "")), String::concat);
+                    return null;
+                case "clear":
+                    values.put(String.valueOf(node.getResourceId()), "");
+                    return null;
+                case "getText":
+                    String typed = values.get(String.valueOf(node.getResourceId()));
+                    return typed != null ? typed : node.getText();
+                case "getAttribute":
+                    String attribute = action.substring(action.lastIndexOf('/') + 1);
+                    if (attribute.equals("text") && values.containsKey(String.valueOf(node.getResourceId()))) {
+                        return values.get(String.valueOf(node.getResourceId()));
+                    }
+                    return node.getAttribute(attribute.equals("resourceId") ? "resource-id"
+                            : attribute.equals("contentDescription") ? "content-desc" : attribute);
+                case "isDisplayed":
+                case "enabled":
+                    return !"false".equals(node.getAttribute(name.equals("isDisplayed") ? "displayed" : "enabled"));
+                case "selected":
+                    return "true".equals(node.getAttribute("selected"));
+                case "name":
+                    return node.getClassName();
+                case "rect":
+                    return rect(node.getAttribute("bounds"));
+                case "findElement":
+                case "findElements":
+                    // Nested lookups are resolved against the whole screen
+                    return execute("POST", "/" + action.substring(1), name, body);
+                default:
+                    return null;
+            }
+        }
+
+        private PageSnapshot.Node findFirst(Map<String, Object> body) {
+            List<PageSnapshot.Node> found = find(body);
+            if (found.isEmpty()) {
+                throw new MockError(404, "no such element", "No element on screen '" + screen + "' for " + body);
+            }
+            return found.get(0);
+        }
+
+        private List<PageSnapshot.Node> find(Map<String, Object> body) {
+            if (appState != 4) {
+                return Collections.emptyList();
+            }
+            String using = String.valueOf(body.get("using"));
+            String value = String.valueOf(body.get("value"));
+            By locator;
+            switch (using) {
+                case "id":
+                    locator = By.id(value);
+                    break;
+                case "class name":
+                    locator = By.className(value);
+                    break;
+                case "accessibility id":
+                    locator = By.xpath("//*[@content-desc=" + xpathLiteral(value) + "]");
+                    break;
+                case "xpath":
+                    locator = By.xpath(value);
+                    break;
+                case "-android uiautomator":
+                    locator = uiSelectorToXPath(value);
+                    break;
+                case "css selector":
+                    // Selenium's W3C form of By.id
+                    Matcher css = Pattern.compile("^(?:#|\\*\\[id=\")(.+?)\"?]?$").matcher(value);
+                    if (!css.matches()) {
+                        throw new MockError(400, "invalid selector", "Unsupported CSS selector: " + value);
+                    }
+                    locator = By.id(css.group(1).replace("\\", ""));
+                    break;
+                default:
+                    throw new MockError(400, "invalid selector", "Unsupported locator strategy: " + using);
+            }
+            try {
+                return PageSnapshot.of(screens.get(screen)).findAll(locator);
+            } catch (IllegalArgumentException e) {
+                throw new MockError(400, "invalid selector", e.getMessage());
+            }
+        }
+
+        private Map<String, Object> toReference(PageSnapshot.Node node) {
+            String elementId = id + "-" + nextElementId.incrementAndGet();
+            elements.put(elementId, node);
+            return Collections.singletonMap(ELEMENT_KEY, elementId);
+        }
+
+        private PageSnapshot.Node element(String elementId) {
+            PageSnapshot.Node node = elements.get(elementId);
+            if (node == null) {
+                throw new MockError(404, "stale element reference", "Element " + elementId + " is no longer on screen");
+            }
+            return node;
+        }
+
+        private String pageSource() {
+            return appState != 4 ? EMPTY_SCREEN : screens.get(screen);
+        }
+
+        private void show(String target) {
+            if (!screens.containsKey(target)) {
+                throw new MockError(500, "unknown error", "Mock script has no screen '" + target + "'");
+            }
+            if (!target.equals(screen)) {
+                history.push(screen);
+            }
+            screen = target;
+            elements.clear();
+            log(1000, "I", "ActivityManager", "Displayed " + appPackage + "/" + activities.getOrDefault(target, ".MainActivity"));
+            log(appPid, "I", "MockApp", "Showing screen " + target);
+        }
+
+        /**
+         * Appends a logcat line in threadtime format; only the latest lines are kept, as on a device.
+         */
+        private void log(int pid, String level, String tag, String message) {
+            long now = System.currentTimeMillis();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("timestamp", now);
+            entry.put("level", "ALL");
+            entry.put("message", String.format(Locale.ROOT, "%s %5d %5d %s %s: %s",
+                    new SimpleDateFormat("MM-dd HH:mm:ss.SSS", Locale.ROOT).format(new Date(now)), pid, pid, level, tag, message));
+            logcat.addLast(entry);
+            if (logcat.size() > 1000) {
+                logcat.removeFirst();
+            }
+        }
+
+        private void back() {
+            if (!history.isEmpty()) {
+                screen = history.pop();
+                elements.clear();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object scriptArgument(Map<String, Object> body, String key) {
+            Object args = body.get("args");
+            if (args instanceof List && !((List<?>) args).isEmpty() && ((List<?>) args).get(0) instanceof Map) {
+                return ((Map<String, Object>) ((List<?>) args).get(0)).get(key);
+            }
+            return null;
+        }
+
+        private Map<String, Object> rect(String bounds) {
+            Map<String, Object> rect = new HashMap<>();
+            Matcher matcher = Pattern.compile("\\[(\\d+),(\\d+)]\\[(\\d+),(\\d+)]").matcher(bounds == null ? "" : bounds);
+            int[] edges = new int[4];
+            if (matcher.matches()) {
+                for (int i = 0; i < 4; i++) {
+                    edges[i] = Integer.parseInt(matcher.group(i + 1));
+                }
+            }
+            rect.put("x", edges[0]);
+            rect.put("y", edges[1]);
+            rect.put("width", edges[2] - edges[0]);
+            rect.put("height", edges[3] - edges[1]);
+            return rect;
+        }
+    }
+
+    /**
+     * A W3C error response.
+     */
+    private static class MockError extends RuntimeException {
+
+        private final int status;
+        private final String error;
+
+        private MockError(int status, String error, String message) {
+            super(message);
+            this.status = status;
+            this.error = error;
+        }
+    }
+}
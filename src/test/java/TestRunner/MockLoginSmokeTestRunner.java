@@ -0,0 +1,19 @@
+package TestRunner;
+
+import io.cucumber.testng.CucumberOptions;
+
+/**
+ * Smoke run of the login feature against the in-process mock Appium server (appium.mock=true),
+ * so the framework can be checked without Appium or a device: mvn test -Pmock.
+ * The mock script (src/test/resources/mock/appium) scripts the successful login only, so the
+ * scenarios expecting a rejected password are left out.
+ */
+@CucumberOptions(
+       features = "src/test/java/FeatureFiles/Login.feature",
+       name = "Perform Login with valid credentials",
+       glue = {"com.client.app.stepDefs", "appium.webdriver.extensions"},
+       plugin = {"pretty", "io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm", "appium.webdriver.metrics.TimingsPlugin"},
+       monochrome = true
+)
+public class MockLoginSmokeTestRunner extends RerunningCucumberTests {
+}
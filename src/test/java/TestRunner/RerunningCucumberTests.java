@@ -0,0 +1,91 @@
+package TestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.testng.IResultMap;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import org.testng.SkipException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import io.cucumber.testng.AbstractTestNGCucumberTests;
+import io.cucumber.testng.FeatureWrapper;
+import io.cucumber.testng.PickleWrapper;
+import appium.webdriver.scheduling.ScenarioReruns;
+
+/**
+ * Cucumber runner base with an in-JVM rerun stage.
+ *
+ * Once every scenario ran, rerunFailedScenarios re-executes the scenarios that failed, up to
+ * rerun.count times each, before Cucumber's AfterAll hooks stop the server and quit the sessions.
+ * A scenario that passes on a rerun no longer counts as failed in the TestNG results and is
+ * reported as flaky; the first attempt stays in the Allure report as a retry. A scenario that
+ * fails every rerun counts once, as the failure of its last rerun. A rerun that skips (pending or
+ * undefined steps) ends the reruns as a skip, not as a hard failure. Reruns run on the main thread,
+ * which leases a device like any worker and takes over that device's session (see DriverManager).
+ */
+public abstract class RerunningCucumberTests extends AbstractTestNGCucumberTests {
+
+    @Test(groups = "cucumber", description = "Reruns failed scenarios",
+            dependsOnMethods = "runScenario", alwaysRun = true, dataProvider = "failedScenarios")
+    public void rerunFailedScenarios(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper) {
+        String scenario = pickleWrapper.getPickle().getName();
+        int maxReruns = ScenarioReruns.getMaxReruns();
+        for (int rerun = 1; ; rerun++) {
+            ScenarioReruns.startAttempt(rerun);
+            try {
+                runScenario(pickleWrapper, featureWrapper);
+            } catch (SkipException e) {
+                // Pending or undefined steps: another attempt would skip again, and a skip is no failure
+                throw e;
+            } catch (RuntimeException | AssertionError e) {
+                if (rerun < maxReruns) {
+                    continue;
+                }
+                ScenarioReruns.recordHardFailure(scenario, maxReruns);
+                // The last rerun's failure stands for the scenario; the first attempt's would count it twice
+                forgetFirstFailure(pickleWrapper);
+                throw e;
+            } finally {
+                ScenarioReruns.endAttempt();
+            }
+            ScenarioReruns.recordFlaky(scenario, rerun);
+            forgetFirstFailure(pickleWrapper);
+            return;
+        }
+    }
+
+    /**
+     * The scenarios of this runner that failed in runScenario.
+     */
+    @DataProvider
+    public Object[][] failedScenarios(ITestContext context) {
+        List<Object[]> failed = new ArrayList<>();
+        if (ScenarioReruns.getMaxReruns() > 0) {
+            for (ITestResult result : firstRunFailures(context)) {
+                failed.add(new Object[] {result.getParameters()[0], result.getParameters()[1]});
+            }
+        }
+        return failed.toArray(new Object[0][]);
+    }
+
+    private void forgetFirstFailure(PickleWrapper pickleWrapper) {
+        IResultMap failedTests = Reporter.getCurrentTestResult().getTestContext().getFailedTests();
+        for (ITestResult result : firstRunFailures(Reporter.getCurrentTestResult().getTestContext())) {
+            if (result.getParameters()[0] == pickleWrapper) {
+                failedTests.removeResult(result);
+            }
+        }
+    }
+
+    private List<ITestResult> firstRunFailures(ITestContext context) {
+        List<ITestResult> failures = new ArrayList<>();
+        for (ITestResult result : context.getFailedTests().getAllResults()) {
+            if (result.getInstance() == this && "runScenario".equals(result.getMethod().getMethodName())) {
+                failures.add(result);
+            }
+        }
+        return failures;
+    }
+}
@@ -1,30 +1,51 @@
 package TestRunner;
+import java.util.Arrays;
+import java.util.List;
 import org.testng.ITestContext;
-import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
-import io.cucumber.testng.AbstractTestNGCucumberTests;
+import org.testng.annotations.DataProvider;
 import io.cucumber.testng.CucumberOptions;
-import appium.webdriver.extensions.Hooks;
+import io.cucumber.testng.PickleWrapper;
+import appium.webdriver.extensions.DriverManager;
+import appium.webdriver.scheduling.ScenarioHistory;
+import appium.webdriver.scheduling.ScenarioScheduler;
+import appium.webdriver.scheduling.ShardPlanner;
 
 @CucumberOptions(
        features = "src/test/java/FeatureFiles",
        glue = {"com.client.app.stepDefs", "appium.webdriver.extensions"},
-       plugin = {"pretty", "io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm"},
+       plugin = {"pretty", "io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm", "appium.webdriver.metrics.TimingsPlugin"},
        monochrome = true
 )
-public class TestRunner extends AbstractTestNGCucumberTests {
+public class TestRunner extends RerunningCucumberTests {
     
-    @BeforeClass
-    public void beforeClass(ITestContext context) {
-        // Reset the last test flag at the beginning of the test run
-        Hooks.setLastTest(false);
-        System.out.println("🚀 Starting test execution with " + context.getAllTestMethods().length + " test methods");
+    /**
+     * Runs scenarios in parallel; the number of concurrent workers is parallel.workers,
+     * applied to TestNG's data-provider-thread-count in beforeClass.
+     * Each worker drives the session of the device it leased (see DriverManager).
+     * With shard.count > 1 only this agent's shard (shard.index) is run, see ShardPlanner;
+     * the scenarios are then ordered fail-fast by ScenarioScheduler.
+     */
+    @Override
+    @DataProvider(parallel = true)
+    public Object[][] scenarios() {
+        List<Object[]> scenarios = ShardPlanner.selectCurrentShard(Arrays.asList(super.scenarios()), TestRunner::historyKey);
+        return ScenarioScheduler.order(scenarios, TestRunner::historyKey).toArray(new Object[0][]);
+    }
+
+    // Rows are {PickleWrapper, FeatureWrapper}
+    private static String historyKey(Object[] scenario) {
+        PickleWrapper pickle = (PickleWrapper) scenario[0];
+        return ScenarioHistory.key(pickle.getPickle().getUri().toString(), pickle.getPickle().getName());
     }
     
-    @AfterClass
-    public void afterClass() {
-        // Set the last test flag to true when all tests are complete
-        Hooks.setLastTest(true);
-        System.out.println("✅ Test execution complete - preventing further app restarts");
+    @BeforeClass
+    public void beforeClass(ITestContext context) {
+        // Pin the data provider pool to the configured workers; without a suite XML (IDE runs)
+        // TestNG would otherwise use its default of 10 threads
+        int workers = DriverManager.getWorkerCount();
+        context.getSuite().getXmlSuite().setDataProviderThreadCount(workers);
+        System.out.println("🚀 Starting test execution with " + context.getAllTestMethods().length
+                + " test methods on " + workers + " worker(s)");
     }
 }
\ No newline at end of file
@@ -1,19 +1,18 @@
 package com.client.app.pages;
 
 import appium.webdriver.extensions.DriverManager;
+import appium.webdriver.extensions.InterruptWatcher;
+import appium.webdriver.extensions.PageSnapshot;
+import appium.webdriver.extensions.SessionCheckpoint;
+import appium.webdriver.extensions.TextEntry;
 import appium.webdriver.extensions.Utility;
+import appium.webdriver.extensions.WaitEngine;
+import appium.webdriver.extensions.WaitFactory;
 import appium.webdriver.logging.TestLogger;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import io.appium.java_client.AppiumBy;
-import io.appium.java_client.android.AndroidDriver;
-import io.appium.java_client.android.nativekey.AndroidKey;
-import io.appium.java_client.android.nativekey.KeyEvent;
-import java.time.Duration;
-import java.util.Arrays;
-import java.util.List;
 
 public class LoginPage extends DriverManager {
    // Locators
@@ -45,40 +44,15 @@ public class LoginPage extends DriverManager {
    private final By logout_option = By.id("com.condecosoftware.condeco:id/logout");
    private final By logout_confirm = By.id("com.condecosoftware.condeco:id/core_dlg_positive_button");
    
-   // ANR dialog locators
-   private final By ANR_Dialog_Title = By.id("android:id/alertTitle");
-   private final By ANR_Wait_Button = By.id("android:id/aerr_wait");
-   private final By ANR_Close_Button = By.id("android:id/aerr_close");
+   // User of the login in progress, recorded in the session checkpoint once it is verified
+   private String loginUser;
    
    /**
     * Helper method to find and return a working username element by trying multiple locators
     * @return WebElement if found, null if none of the locators work
     */
    private WebElement findUsernameField() {
-       List<By> locators = Arrays.asList(
-           Username_by_id,
-           Username_by_uiautomator,
-           Username_by_xpath
-       );
-       
-       TestLogger.debug("Trying to find username field with multiple locators...");
-       
-       for (int i = 0; i < locators.size(); i++) {
-           By locator = locators.get(i);
-           try {
-               TestLogger.debug("Attempt " + (i + 1) + "/" + locators.size() + ": " + locator.toString());
-               WebElement element = driver.findElement(locator);
-               if (element != null && element.isDisplayed()) {
-                   TestLogger.pass("Found username field with: " + locator.toString());
-                   return element;
-               }
-           } catch (Exception e) {
-               TestLogger.debug("Locator failed: " + e.getMessage().split("\n")[0]);
-           }
-       }
-       
-       TestLogger.fail("All username locators failed!");
-       return null;
+       return findDisplayedField("username", Username_by_id, Username_by_uiautomator, Username_by_xpath);
    }
    
    /**
@@ -86,29 +60,26 @@ public class LoginPage extends DriverManager {
     * @return WebElement if found, null if none of the locators work
     */
    private WebElement findPasswordField() {
-       List<By> locators = Arrays.asList(
-           Password_by_id,
-           Password_by_uiautomator,
-           Password_by_xpath
-       );
-       
-       TestLogger.debug("Trying to find password field with multiple locators...");
-       
-       for (int i = 0; i < locators.size(); i++) {
-           By locator = locators.get(i);
-           try {
-               TestLogger.debug("Attempt " + (i + 1) + "/" + locators.size() + ": " + locator.toString());
-               WebElement element = driver.findElement(locator);
-               if (element != null && element.isDisplayed()) {
-                   TestLogger.pass("Found password field with: " + locator.toString());
-                   return element;
-               }
-           } catch (Exception e) {
-               TestLogger.debug("Locator failed: " + e.getMessage().split("\n")[0]);
+       return findDisplayedField("password", Password_by_id, Password_by_uiautomator, Password_by_xpath);
+   }
+   
+   /**
+    * Resolves the first displayed match among the locator variants of a field in one lookup
+    * @return WebElement if found, null if none of the locators work
+    */
+   private WebElement findDisplayedField(String fieldName, By... locators) {
+       TestLogger.debug("Trying to find " + fieldName + " field with " + locators.length + " locators...");
+       try {
+           WebElement element = Utility.findFirstMatch(0, locators);
+           if (element.isDisplayed()) {
+               TestLogger.pass("Found " + fieldName + " field");
+               return element;
            }
+       } catch (Exception e) {
+           TestLogger.debug("Locators failed: " + String.valueOf(e.getMessage()).split("\n")[0]);
        }
        
-       TestLogger.fail("All password locators failed!");
+       TestLogger.fail("All " + fieldName + " locators failed!");
        return null;
    }
    
@@ -119,73 +90,24 @@ public class LoginPage extends DriverManager {
    private void clearCredentialFields() {
        TestLogger.info("Clearing credential fields before entry...");
        try {
-           // Clear username field
            WebElement usernameElement = findUsernameField();
            if (usernameElement != null) {
-               String currentText = usernameElement.getAttribute("text");
-               String showingHint = usernameElement.getAttribute("showingHintText");
-               TestLogger.debug("Username field - current text: '" + currentText + "', showing-hint: " + showingHint);
-               
-               if (!"true".equals(showingHint) && currentText != null && !currentText.equals("Username") && !currentText.isEmpty()) {
-                   TestLogger.debug("Clearing username field...");
-                   usernameElement.click();
-                   Thread.sleep(300);
-                   usernameElement.clear();
-                   Thread.sleep(300);
-                   
-                   // Verify it's cleared - use backspace as fallback
-                   String afterClear = usernameElement.getAttribute("text");
-                   if (afterClear != null && !afterClear.equals("Username") && !afterClear.isEmpty() && !"true".equals(usernameElement.getAttribute("showingHintText"))) {
-                       TestLogger.debug("Clear didn't work, using backspace...");
-                       AndroidDriver androidDriver = (AndroidDriver) driver;
-                       for (int i = 0; i < 50; i++) {
-                           androidDriver.pressKey(new KeyEvent(AndroidKey.DEL));
-                       }
-                       Thread.sleep(300);
-                   }
+               if (TextEntry.clear(usernameElement, "Username")) {
                    TestLogger.pass("Username field cleared");
                } else {
-                   TestLogger.debug("Username field already empty/showing hint");
+                   TestLogger.warn("Username field could not be cleared");
                }
            }
            
-           // Clear password field
            WebElement passwordElement = findPasswordField();
            if (passwordElement != null) {
-               String currentText = passwordElement.getAttribute("text");
-               String showingHint = passwordElement.getAttribute("showingHintText");
-               TestLogger.debug("Password field - current text: '" + currentText + "', showing-hint: " + showingHint);
-               
-               if (!"true".equals(showingHint) && currentText != null && !currentText.equals("Password") && !currentText.isEmpty()) {
-                   TestLogger.debug("Clearing password field...");
-                   passwordElement.click();
-                   Thread.sleep(300);
-                   passwordElement.clear();
-                   Thread.sleep(300);
-                   
-                   // Verify it's cleared - use backspace as fallback
-                   String afterClear = passwordElement.getAttribute("text");
-                   if (afterClear != null && !afterClear.equals("Password") && !afterClear.isEmpty() && !"true".equals(passwordElement.getAttribute("showingHintText"))) {
-                       TestLogger.debug("Clear didn't work, using backspace...");
-                       AndroidDriver androidDriver = (AndroidDriver) driver;
-                       for (int i = 0; i < 50; i++) {
-                           androidDriver.pressKey(new KeyEvent(AndroidKey.DEL));
-                       }
-                       Thread.sleep(300);
-                   }
+               if (TextEntry.clear(passwordElement, "Password")) {
                    TestLogger.pass("Password field cleared");
                } else {
-                   TestLogger.debug("Password field already empty/showing hint");
+                   TestLogger.warn("Password field could not be cleared");
                }
            }
            
-           // Hide keyboard if open
-           try {
-               driver.hideKeyboard();
-           } catch (Exception e) {
-               // Keyboard not open
-           }
-           
            TestLogger.info("Credential fields clearing completed");
        } catch (Exception e) {
            TestLogger.warn("Error clearing credential fields: " + e.getMessage());
@@ -194,26 +116,33 @@ public class LoginPage extends DriverManager {
    
    /**
     * Check if any username locator is present on screen
-    * @param timeoutSeconds timeout for each locator check
+    * @param timeoutSeconds timeout shared by all locator variants
     * @return true if any username locator is found
     */
    private boolean isAnyUsernameLocatorPresent(int timeoutSeconds) {
-       List<By> locators = Arrays.asList(
-           Username_by_id,
-           Username_by_uiautomator,
-           Username_by_xpath
-       );
+       return Utility.isAnyElementPresent(timeoutSeconds, Username_by_id, Username_by_uiautomator, Username_by_xpath);
+   }
+  
+   /**
+    * Makes sure the app is logged in with the configured user, reusing the session left by an
+    * earlier scenario when it is still valid and logging in from scratch otherwise
+    */
+   public void ensureLoggedIn() {
+       String userName = Utility.getProperty("mobile.app.login.username");
+       if (SessionCheckpoint.isValid(userName, Profile_menu_btn, Todaypage_Header)) {
+           return;
+       }
        
-       for (By locator : locators) {
-           try {
-               if (Utility.isElementPresent(locator, timeoutSeconds)) {
-                   return true;
-               }
-           } catch (Exception e) {
-               // Continue to next locator
-           }
+       TestLogger.info("No reusable session, logging in...");
+       try {
+           ensureLoginPageIsDisplayed();
+           perform_Forms_Login(Utility.getProperty("mobile.app.login.servername"), userName,
+                   Utility.getProperty("mobile.app.login.password"));
+           verify_Valid_Login();
+       } catch (InterruptedException e) {
+           Thread.currentThread().interrupt();
+           throw new RuntimeException("Interrupted while logging in", e);
        }
-       return false;
    }
   
    // method to ensure user is on login page
@@ -221,10 +150,10 @@ public class LoginPage extends DriverManager {
         try {
             TestLogger.separator();
             TestLogger.step("Ensuring user is on login page...");
-            TestLogger.debug("Current Activity: " + driver.currentActivity());
+            TestLogger.debug("Current Activity: " + driver().currentActivity());
             
-            // Give app time to settle after launch
-            Thread.sleep(3000);
+            // Wait for the app's first screen: login, credentials or an already logged-in home
+            Utility.isAnyElementPresent(3, EpturaURL, UserCredentials_Screen, Profile_menu_btn, Todaypage_Header);
             
             // First, check for and handle any ANR (Application Not Responding) dialogs
             handleANRDialog();
@@ -247,8 +176,8 @@ public class LoginPage extends DriverManager {
                 performLogout();
                 
                 // After logout, wait for login page
-                Thread.sleep(2000);
-                if (Utility.isElementPresent(EpturaURL, 5) || isAnyUsernameLocatorPresent(5)) {
+                if (WaitEngine.waitUntil("login page after logout", 10,
+                        () -> Utility.isElementPresent(EpturaURL, 0) || isAnyUsernameLocatorPresent(0))) {
                     TestLogger.pass("Logout successful, now on login page");
                     return;
                 }
@@ -257,47 +186,26 @@ public class LoginPage extends DriverManager {
             TestLogger.info("Could not reach login page through logout, restarting app...");
             DriverManager.restartApp();
             
-            // After restart, wait longer for the app to initialize
+            // After restart, wait for login page elements, handling any ANR dialog between polls
             TestLogger.info("Waiting for app to initialize after restart...");
-            Thread.sleep(5000);
-            
-            // Check for ANR dialog again after restart
-            handleANRDialog();
-            
-            // Check again for login page elements with increased timeout
             TestLogger.debug("Checking for login page elements after restart...");
-            for (int i = 0; i < 3; i++) {
-                TestLogger.debug("Attempt " + (i + 1) + " - Current Activity: " + driver.currentActivity());
-                
-                // Check for ANR dialog in each iteration
+            boolean loginPageFound = WaitEngine.waitUntil("login page after restart", 30, () -> {
                 handleANRDialog();
-                
-                if (Utility.isElementPresent(EpturaURL, 5)) {
-                    TestLogger.pass("Found URL entry field on login page");
-                    return;
-                }
-                
-                if (isAnyUsernameLocatorPresent(5)) {
-                    TestLogger.pass("Found username field on login page");
-                    return;
-                }
-                
-                TestLogger.debug("Login page not detected yet, waiting...");
-                Thread.sleep(3000);
+                return Utility.isElementPresent(EpturaURL, 0) || isAnyUsernameLocatorPresent(0);
+            });
+            if (loginPageFound) {
+                TestLogger.pass("Found login page after restart");
+                return;
             }
             
             // Last resort - print page source for debugging
             TestLogger.fail("Could not reach login page after all attempts");
-            TestLogger.debug("Current Activity: " + driver.currentActivity());
+            TestLogger.debug("Current Activity: " + driver().currentActivity());
             TestLogger.debug("Printing page source for debugging:");
-            TestLogger.debug(driver.getPageSource());
+            TestLogger.debug(driver().getPageSource());
             
             throw new RuntimeException("Failed to navigate to login page after multiple attempts");
             
-        } catch (InterruptedException e) {
-            TestLogger.warn("Thread interrupted: " + e.getMessage());
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Interrupted while ensuring login page: " + e.getMessage());
         } catch (Exception e) {
             TestLogger.error("Error ensuring login page is displayed", e);
             throw new RuntimeException("Failed to navigate to login page: " + e.getMessage());
@@ -310,19 +218,18 @@ public class LoginPage extends DriverManager {
             TestLogger.step("Performing logout...");
             
             if (Utility.isElementPresent(Profile_menu_btn, 5)) {
-                driver.findElement(Profile_menu_btn).click();
+                Utility.clickElement(Profile_menu_btn, 5);
                 TestLogger.debug("Clicked Profile menu");
-                Thread.sleep(1500);
                 
                 if (Utility.isElementPresent(logout_option, 5)) {
-                    driver.findElement(logout_option).click();
+                    Utility.clickElement(logout_option, 5);
                     TestLogger.debug("Clicked Logout option");
-                    Thread.sleep(1000);
                     
                     if (Utility.isElementPresent(logout_confirm, 5)) {
-                        driver.findElement(logout_confirm).click();
+                        Utility.clickElement(logout_confirm, 5);
+                        SessionCheckpoint.invalidate();
                         TestLogger.pass("Logout confirmed");
-                        Thread.sleep(2000);
+                        WaitEngine.waitForElementGone(logout_confirm, 3);
                     }
                 }
             } else {
@@ -340,9 +247,10 @@ public class LoginPage extends DriverManager {
             TestLogger.separator();
             TestLogger.step("Attempting to perform login...");
             TestLogger.info("Server: " + serverName + ", Username: " + userName);
+            loginUser = userName;
 
-            TestLogger.debug("Waiting for app to stabilize...");
-            Thread.sleep(3000);
+            TestLogger.debug("Waiting for the URL or credentials screen...");
+            Utility.isAnyElementPresent(3, EpturaURL, Username_by_id);
 
             boolean onUrlScreen = Utility.isElementPresent(EpturaURL, 10);
             boolean onCredentialsScreen = isAnyUsernameLocatorPresent(10);
@@ -352,23 +260,14 @@ public class LoginPage extends DriverManager {
             // If neither screen is detected, retry with longer waits
             if (!onUrlScreen && !onCredentialsScreen) {
                 TestLogger.warn("Neither login screen detected, attempting recovery...");
-                TestLogger.debug("Current Activity: " + driver.currentActivity());
-                
-                Thread.sleep(2000);
+                TestLogger.debug("Current Activity: " + driver().currentActivity());
                 
-                // Retry detection with longer timeout
-                for (int attempt = 1; attempt <= 3; attempt++) {
-                    TestLogger.debug("Retry attempt " + attempt + "/3...");
-                    
-                    onUrlScreen = Utility.isElementPresent(EpturaURL, 10);
-                    onCredentialsScreen = isAnyUsernameLocatorPresent(10);
-                    
-                    if (onUrlScreen || onCredentialsScreen) {
-                        TestLogger.pass("Login screen detected on retry " + attempt);
-                        break;
-                    }
-                    
-                    Thread.sleep(3000);
+                // Retry detection until either screen shows up
+                if (WaitEngine.waitUntil("login screen", 30,
+                        () -> Utility.isElementPresent(EpturaURL, 0) || isAnyUsernameLocatorPresent(0))) {
+                    onUrlScreen = Utility.isElementPresent(EpturaURL, 0);
+                    onCredentialsScreen = !onUrlScreen;
+                    TestLogger.pass("Login screen detected on retry");
                 }
                 
                 // If still not detected, print debug info and throw error
@@ -382,34 +281,24 @@ public class LoginPage extends DriverManager {
                 TestLogger.pass("Already on credentials screen, skipping URL entry");
             } else if (onUrlScreen) {
                 TestLogger.step("On URL entry screen, entering server name...");
-                WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-                wait.until(ExpectedConditions.visibilityOfElementLocated(EpturaURL));
+                WaitFactory.getWait(10).until(ExpectedConditions.visibilityOfElementLocated(EpturaURL));
                 
-                driver.findElement(EpturaURL).click();
-                driver.findElement(EpturaURL).clear();
-                driver.findElement(EpturaURL).sendKeys(serverName);
+                if (!TextEntry.setText(driver().findElement(EpturaURL), serverName, null)) {
+                    TestLogger.warn("Server name could not be verified: " + serverName);
+                }
                 TestLogger.pass("Server name entered: " + serverName);
                 
-                // Wait a bit before hiding keyboard
-                Thread.sleep(1000);
-                
                 try {
-                    driver.hideKeyboard();
+                    driver().hideKeyboard();
                     TestLogger.debug("Keyboard hidden");
-                    Thread.sleep(1000);
                 } catch (Exception keyboardEx) {
                     TestLogger.debug("Keyboard already hidden");
                 }
                 
-                Thread.sleep(500);
                 TestLogger.debug("Clicking Continue button...");
-                driver.findElement(Continue_btn).click();
+                Utility.clickElement(Continue_btn, 10);
                 TestLogger.pass("Continue button clicked");
                 
-                // Wait for transition to credentials screen
-                TestLogger.debug("Waiting for credentials screen to load...");
-                Thread.sleep(2000);
-                
                 // Use the dedicated method to wait for credentials dialog to be fully interactive
                 TestLogger.debug("Waiting for credentials dialog (60 seconds timeout)...");
                 boolean usernameFound = waitForCredentialsDialog(60);
@@ -420,8 +309,7 @@ public class LoginPage extends DriverManager {
                     // Check if still on URL entry screen
                     if (Utility.isElementPresent(EpturaURL, 2)) {
                         TestLogger.debug("Still on URL entry screen - clicking Continue again");
-                        driver.findElement(Continue_btn).click();
-                        Thread.sleep(3000);
+                        Utility.clickElement(Continue_btn, 10);
                         
                         if (!waitForCredentialsDialog(30)) {
                             TestLogger.fail("Cannot find username field after URL submission.");
@@ -429,8 +317,6 @@ public class LoginPage extends DriverManager {
                         }
                     }
                 }
-                
-                Thread.sleep(1500); // Give UI time to stabilize after transition
             } else {
                 TestLogger.fail("Not on URL screen or credentials screen");
                 throw new RuntimeException("Cannot proceed with login - app is in unexpected state");
@@ -454,32 +340,26 @@ public class LoginPage extends DriverManager {
             if (usernameElement == null) {
                 TestLogger.fail("Could not find username field with any locator!");
                 TestLogger.debug("Page source for debugging:");
-                TestLogger.debug(driver.getPageSource());
+                TestLogger.debug(driver().getPageSource());
                 throw new RuntimeException("Username field not found with any locator");
             }
             
             // Wait for element to be clickable
-            Thread.sleep(1500);
+            final WebElement usernameField = usernameElement;
+            WaitEngine.waitUntil("username field enabled", 2, usernameField::isEnabled);
             
             // Enter username using robust method with verification
             TestLogger.debug("Entering username with robust method...");
             boolean usernameEntered = enterTextWithVerification(usernameElement, userName, "Username");
             
             if (!usernameEntered) {
-                TestLogger.warn("Username entry verification failed, attempting fallback...");
-                // Re-find element and try one more time with basic approach
+                TestLogger.warn("Username entry verification failed, retrying on a fresh element...");
                 usernameElement = findUsernameField();
                 if (usernameElement != null) {
-                    usernameElement.click();
-                    Thread.sleep(500);
-                    usernameElement.clear();
-                    Thread.sleep(300);
-                    usernameElement.sendKeys(userName);
-                    Thread.sleep(500);
+                    enterTextWithVerification(usernameElement, userName, "Username");
                 }
             }
             TestLogger.pass("Username entry completed: " + userName);
-            Thread.sleep(500);
             
             // Find password field using multiple locators
             TestLogger.debug("Attempting to find and click password field...");
@@ -488,7 +368,7 @@ public class LoginPage extends DriverManager {
             if (passwordElement == null) {
                 TestLogger.fail("Could not find password field with any locator!");
                 TestLogger.debug("Page source for debugging:");
-                TestLogger.debug(driver.getPageSource());
+                TestLogger.debug(driver().getPageSource());
                 throw new RuntimeException("Password field not found with any locator");
             }
             
@@ -497,32 +377,24 @@ public class LoginPage extends DriverManager {
             boolean passwordEntered = enterTextWithVerification(passwordElement, password, "Password");
             
             if (!passwordEntered) {
-                TestLogger.warn("Password entry verification failed, attempting fallback...");
-                // Re-find element and try one more time
+                TestLogger.warn("Password entry verification failed, retrying on a fresh element...");
                 passwordElement = findPasswordField();
                 if (passwordElement != null) {
-                    passwordElement.click();
-                    Thread.sleep(500);
-                    passwordElement.clear();
-                    Thread.sleep(300);
-                    passwordElement.sendKeys(password);
-                    Thread.sleep(500);
+                    enterTextWithVerification(passwordElement, password, "Password");
                 }
             }
             TestLogger.pass("Password entry completed");
-            Thread.sleep(800);
             
             try {
-                driver.hideKeyboard();
+                driver().hideKeyboard();
                 TestLogger.debug("Keyboard hidden after password entry");
-                Thread.sleep(800);
             } catch (Exception keyboardEx) {
                 TestLogger.debug("Keyboard already hidden");
             }
             
             // Verify the Continue button is enabled before clicking
-            Thread.sleep(500);
-            WebElement continueBtn = driver.findElement(Continue_btn);
+            WaitEngine.waitUntil("Continue button enabled", 2, () -> driver().findElement(Continue_btn).isEnabled());
+            WebElement continueBtn = driver().findElement(Continue_btn);
             TestLogger.debug("Continue button enabled: " + continueBtn.isEnabled());
             
             // Capture screenshot before clicking continue button for CI/CD debugging
@@ -539,59 +411,35 @@ public class LoginPage extends DriverManager {
                 // Try re-entering credentials one more time
                 TestLogger.debug("Attempting to re-enter credentials...");
                 
-                // Re-enter username
+                // Re-enter both fields; TextEntry falls back to adb input if the element commands don't stick
                 usernameElement = findUsernameField();
                 if (usernameElement != null) {
-                    usernameElement.click();
-                    Thread.sleep(300);
-                    // Use ADB shell input as last resort
-                    try {
-                        AndroidDriver androidDriver = (AndroidDriver) driver;
-                        androidDriver.executeScript("mobile: shell", java.util.Map.of(
-                            "command", "input",
-                            "args", java.util.Arrays.asList("text", userName)
-                        ));
-                        Thread.sleep(500);
-                    } catch (Exception e) {
-                        usernameElement.sendKeys(userName);
-                    }
+                    TextEntry.setText(usernameElement, userName, "Username");
                 }
                 
-                // Re-enter password
                 passwordElement = findPasswordField();
                 if (passwordElement != null) {
-                    passwordElement.click();
-                    Thread.sleep(300);
-                    try {
-                        AndroidDriver androidDriver = (AndroidDriver) driver;
-                        androidDriver.executeScript("mobile: shell", java.util.Map.of(
-                            "command", "input",
-                            "args", java.util.Arrays.asList("text", password)
-                        ));
-                        Thread.sleep(500);
-                    } catch (Exception e) {
-                        passwordElement.sendKeys(password);
-                    }
+                    TextEntry.setText(passwordElement, password, "Password");
                 }
                 
                 try {
-                    driver.hideKeyboard();
+                    driver().hideKeyboard();
                 } catch (Exception e) {}
-                Thread.sleep(500);
                 
                 // Re-check continue button
-                continueBtn = driver.findElement(Continue_btn);
+                WaitEngine.waitUntil("Continue button enabled", 2, () -> driver().findElement(Continue_btn).isEnabled());
+                continueBtn = driver().findElement(Continue_btn);
                 TestLogger.debug("Continue button enabled after retry: " + continueBtn.isEnabled());
             }
             
             TestLogger.step("Submitting login credentials...");
-            continueBtn.click();
+            Utility.clickElement(Continue_btn, 10);
             TestLogger.pass("Login credentials submitted successfully");
             TestLogger.separator();
 
-            // Wait for page to load after login submission
+            // Wait for the home screen or the login error, whichever the verification step looks for
             TestLogger.debug("Waiting for page to load after login...");
-            Thread.sleep(5000); // Initial wait for transition to start
+            Utility.isAnyElementPresent(5, Todaypage_Header, textInputErrorOnLogin_id);
             
         } catch (Exception e) {
             TestLogger.error("Login failed: " + e.getMessage());
@@ -678,8 +526,8 @@ public class LoginPage extends DriverManager {
             // Check for home screen indicators (positive verification)
             boolean onHomeScreen = false;
             
-            // Check for various home screen elements
-            if (Utility.isElementPresent(Todaypage_Header, 5)) {
+            // Check for various home screen elements, dismissing late post-login dialogs while waiting
+            if (InterruptWatcher.waitFor(Todaypage_Header, 30)) {
                 TestLogger.pass("Found Today page header - user is logged in and is on Today page");
                 onHomeScreen = true;
             }
@@ -693,13 +541,14 @@ public class LoginPage extends DriverManager {
             
             if (onHomeScreen || notOnLoginScreen) {
                 TestLogger.pass("User successfully logged in");
+                SessionCheckpoint.markLoggedIn(loginUser);
                 
                 // Final check for any delayed notifications that might have appeared
                 Utility.handleAppNotifications();
                 Utility.forceDismissDialogs();
             } else {
                 TestLogger.fail("Login verification failed");
-                TestLogger.debug("Current activity: " + driver.currentActivity());
+                TestLogger.debug("Current activity: " + driver().currentActivity());
                 throw new AssertionError("Login appears to have failed - still on login screen");
             }
         } catch (AssertionError e) {
@@ -717,61 +566,52 @@ public class LoginPage extends DriverManager {
        try {
            TestLogger.debug("Scanning for error messages...");
            
+           // All probes below are answered from one page source instead of a lookup each
+           PageSnapshot snapshot = PageSnapshot.refresh();
+           
            // Check for textinput_error element
-           if (Utility.isElementPresent(textInputErrorOnLogin_id, 2)) {
-               String errorText = Utility.getTextFromid(textInputErrorOnLogin_id, 2);
-               TestLogger.warn("Found error message: " + errorText);
+           PageSnapshot.Node inputError = snapshot.find(textInputErrorOnLogin_id);
+           if (inputError != null) {
+               TestLogger.warn("Found error message: " + inputError.getText());
            }
            
            // Check for snackbar error
-           By snackbarError = By.id("com.condecosoftware.condeco:id/snackbar_text");
-           if (Utility.isElementPresent(snackbarError, 2)) {
-               try {
-                   String snackbarText = driver.findElement(snackbarError).getText();
-                   TestLogger.warn("Found snackbar message: " + snackbarText);
-               } catch (Exception e) {}
+           PageSnapshot.Node snackbar = snapshot.find(By.id("com.condecosoftware.condeco:id/snackbar_text"));
+           if (snackbar != null) {
+               TestLogger.warn("Found snackbar message: " + snackbar.getText());
            }
            
            // Check for any dialog with error text
-           By errorDialog = By.xpath("//*[contains(@text, 'error') or contains(@text, 'Error') or contains(@text, 'failed') or contains(@text, 'Failed') or contains(@text, 'invalid') or contains(@text, 'Invalid') or contains(@text, 'unauthorized') or contains(@text, 'Unauthorized') or contains(@text, 'incorrect') or contains(@text, 'Incorrect')]");
-           if (Utility.isElementPresent(errorDialog, 2)) {
-               try {
-                   String errorText = driver.findElement(errorDialog).getText();
-                   TestLogger.warn("Found error dialog/text: " + errorText);
-               } catch (Exception e) {}
+           PageSnapshot.Node errorText = snapshot.findByTextContaining("error", "failed", "invalid", "unauthorized", "incorrect");
+           if (errorText != null) {
+               TestLogger.warn("Found error dialog/text: " + errorText.getText());
            }
            
-           // Check for alert dialog
-           By alertTitle = By.id("android:id/alertTitle");
-           if (Utility.isElementPresent(alertTitle, 1)) {
-               try {
-                   String alertText = driver.findElement(alertTitle).getText();
-                   TestLogger.warn("Found alert dialog: " + alertText);
-                   
-                   // Try to get the message too
-                   By alertMessage = By.id("android:id/message");
-                   if (Utility.isElementPresent(alertMessage, 1)) {
-                       String messageText = driver.findElement(alertMessage).getText();
-                       TestLogger.warn("Alert message: " + messageText);
-                   }
-                   
-                   // Dismiss the alert if there's an OK button
-                   By okButton = By.id("android:id/button1");
-                   if (Utility.isElementPresent(okButton, 1)) {
-                       driver.findElement(okButton).click();
-                       TestLogger.pass("Dismissed alert dialog");
-                       Thread.sleep(1000);
-                   }
-               } catch (Exception e) {}
+           // Check for network error indicators
+           PageSnapshot.Node networkText = snapshot.findByTextContaining("network", "connection", "timeout");
+           if (networkText != null) {
+               TestLogger.warn("Possible network error: " + networkText.getText());
            }
            
-           // Check for network error indicators
-           By networkError = By.xpath("//*[contains(@text, 'network') or contains(@text, 'Network') or contains(@text, 'connection') or contains(@text, 'Connection') or contains(@text, 'timeout') or contains(@text, 'Timeout')]");
-           if (Utility.isElementPresent(networkError, 1)) {
-               try {
-                   String networkText = driver.findElement(networkError).getText();
-                   TestLogger.warn("Possible network error: " + networkText);
-               } catch (Exception e) {}
+           // Check for alert dialog
+           By alertTitle = By.id("android:id/alertTitle");
+           PageSnapshot.Node alert = snapshot.find(alertTitle);
+           if (alert != null) {
+               TestLogger.warn("Found alert dialog: " + alert.getText());
+               
+               // Try to get the message too
+               PageSnapshot.Node alertMessage = snapshot.find(By.id("android:id/message"));
+               if (alertMessage != null) {
+                   TestLogger.warn("Alert message: " + alertMessage.getText());
+               }
+               
+               // Dismiss the alert if there's an OK button
+               By okButton = By.id("android:id/button1");
+               if (snapshot.isPresent(okButton)) {
+                   Utility.clickElement(okButton, 1);
+                   TestLogger.pass("Dismissed alert dialog");
+                   WaitEngine.waitForElementGone(alertTitle, 2);
+               }
            }
            
        } catch (Exception e) {
@@ -780,168 +620,19 @@ public class LoginPage extends DriverManager {
    }
    
    /**
-    * Robust text entry method that tries multiple approaches and verifies the text was entered
+    * Sets a credential field and verifies it with a single read (see TextEntry)
     * @param element The WebElement to enter text into
     * @param text The text to enter
-    * @param fieldName Name of the field for logging
+    * @param fieldName Name of the field for logging; also its hint text
     * @return true if text was successfully entered and verified
     */
    private boolean enterTextWithVerification(WebElement element, String text, String fieldName) {
-       TestLogger.debug("Entering text into " + fieldName + " field using robust method...");
-       
-       // Approach 1: Standard sendKeys with clear
-       try {
-           TestLogger.debug("  Approach 1: Standard sendKeys...");
-           element.click();
-           Thread.sleep(500);
-           element.clear();
-           Thread.sleep(300);
-           element.sendKeys(text);
-           Thread.sleep(500);
-           
-           // Verify text was entered
-           String enteredText = element.getText();
-           String attributeText = element.getAttribute("text");
-           TestLogger.debug("  Verification - getText(): '" + enteredText + "', getAttribute('text'): '" + attributeText + "'");
-           
-           if ((enteredText != null && enteredText.equals(text)) || 
-               (attributeText != null && attributeText.equals(text))) {
-               TestLogger.pass("  Approach 1 succeeded!");
-               return true;
-           }
-           
-           // Check if it's not showing hint anymore (for password fields that mask text)
-           String showingHint = element.getAttribute("showingHintText");
-           if ("false".equals(showingHint)) {
-               TestLogger.pass("  Approach 1 succeeded (hint no longer showing)!");
-               return true;
-           }
-           
-           TestLogger.warn("  Approach 1: Text not verified, trying next approach...");
-       } catch (Exception e) {
-           TestLogger.debug("  Approach 1 failed: " + e.getMessage());
-       }
-       
-       // Approach 2: Click, clear using Actions, then type character by character
-       try {
-           TestLogger.debug("  Approach 2: Character-by-character entry...");
-           element.click();
-           Thread.sleep(500);
-           
-           // Clear field by selecting all and deleting
-           AndroidDriver androidDriver = (AndroidDriver) driver;
-           
-           // Triple-tap to select all text
-           element.click();
-           element.click();
-           element.click();
-           Thread.sleep(300);
-           
-           // Press delete/backspace multiple times to clear
-           for (int i = 0; i < 50; i++) {
-               androidDriver.pressKey(new KeyEvent(AndroidKey.DEL));
-           }
-           Thread.sleep(300);
-           
-           // Now type text
-           element.sendKeys(text);
-           Thread.sleep(500);
-           
-           // Verify
-           String showingHint = element.getAttribute("showingHintText");
-           if ("false".equals(showingHint)) {
-               TestLogger.pass("  Approach 2 succeeded!");
-               return true;
-           }
-           
-           String attributeText = element.getAttribute("text");
-           if (attributeText != null && !attributeText.equals(fieldName) && !attributeText.isEmpty()) {
-               TestLogger.pass("  Approach 2 succeeded (text attribute: " + attributeText + ")!");
-               return true;
-           }
-           
-           TestLogger.warn("  Approach 2: Text not verified, trying next approach...");
-       } catch (Exception e) {
-           TestLogger.debug("  Approach 2 failed: " + e.getMessage());
-       }
-       
-       // Approach 3: Use setValue (Appium-specific method)
-       try {
-           TestLogger.debug("  Approach 3: Using setValue()...");
-           element.click();
-           Thread.sleep(500);
-           
-           // Use Appium's setValue which is more reliable for some apps
-           ((io.appium.java_client.android.AndroidDriver) driver).executeScript(
-               "mobile: type", 
-               java.util.Map.of("text", text)
-           );
-           Thread.sleep(500);
-           
-           String showingHint = element.getAttribute("showingHintText");
-           if ("false".equals(showingHint)) {
-               TestLogger.pass("  Approach 3 succeeded!");
-               return true;
-           }
-           
-           TestLogger.warn("  Approach 3: Text not verified, trying next approach...");
-       } catch (Exception e) {
-           TestLogger.debug("  Approach 3 failed: " + e.getMessage());
-       }
-       
-       // Approach 4: Use ADB shell input (most reliable but slower)
-       try {
-           TestLogger.debug("  Approach 4: Using ADB shell input...");
-           element.click();
-           Thread.sleep(500);
-           
-           // Clear using select all + delete via ADB
-           AndroidDriver androidDriver = (AndroidDriver) driver;
-           
-           // Execute shell command to input text
-           // First clear by selecting all (Ctrl+A) and delete
-           androidDriver.executeScript("mobile: shell", java.util.Map.of(
-               "command", "input",
-               "args", java.util.Arrays.asList("keyevent", "KEYCODE_CTRL_LEFT", "KEYCODE_A")
-           ));
-           Thread.sleep(200);
-           androidDriver.executeScript("mobile: shell", java.util.Map.of(
-               "command", "input",
-               "args", java.util.Arrays.asList("keyevent", "KEYCODE_DEL")
-           ));
-           Thread.sleep(200);
-           
-           // Input text via ADB - escape special characters
-           String escapedText = text.replace(" ", "%s").replace("'", "\\'");
-           androidDriver.executeScript("mobile: shell", java.util.Map.of(
-               "command", "input",
-               "args", java.util.Arrays.asList("text", escapedText)
-           ));
-           Thread.sleep(500);
-           
-           String showingHint = element.getAttribute("showingHintText");
-           if ("false".equals(showingHint)) {
-               TestLogger.pass("  Approach 4 succeeded!");
-               return true;
-           }
-           
-           TestLogger.warn("  Approach 4: Text verification inconclusive");
-       } catch (Exception e) {
-           TestLogger.debug("  Approach 4 failed: " + e.getMessage());
+       TestLogger.debug("Entering text into " + fieldName + " field...");
+       if (TextEntry.setText(element, text, fieldName)) {
+           TestLogger.pass("  " + fieldName + " entered and verified");
+           return true;
        }
-       
-       // Final check - if Continue button becomes enabled, text entry likely worked
-       try {
-           WebElement continueBtn = driver.findElement(Continue_btn);
-           if (continueBtn.isEnabled()) {
-               TestLogger.pass("  Continue button is enabled - text entry likely succeeded!");
-               return true;
-           }
-       } catch (Exception e) {
-           // Ignore
-       }
-       
-       TestLogger.fail("  All approaches completed. Text may or may not have been entered.");
+       TestLogger.fail("  " + fieldName + " could not be verified after all text entry strategies");
        return false;
    }
 
@@ -990,9 +681,9 @@ public class LoginPage extends DriverManager {
                    }
                } catch (Exception e) { }
                
-               // If loading, wait longer before next check
+               // If loading, back off before next check
                if (isLoading) {
-                   Thread.sleep(3000);
+                   WaitEngine.backoff(attemptCount);
                    continue;
                }
                
@@ -1029,12 +720,10 @@ public class LoginPage extends DriverManager {
                                
                                if (bounds != null && !bounds.isEmpty()) {
                                    TestLogger.pass("  Credentials dialog is fully loaded and interactive!");
-                                   Thread.sleep(1000); // Extra stabilization time for slow emulators
                                    return true;
                                }
                            } catch (Exception boundsEx) {
                                TestLogger.debug("  Credentials dialog appears ready");
-                               Thread.sleep(1000);
                                return true;
                            }
                        }
@@ -1046,12 +735,11 @@ public class LoginPage extends DriverManager {
                if (dialogFoundOnce && attemptCount % 5 == 0) {
                    TestLogger.debug("    Attempting tap to focus dialog...");
                    try {
-                       int screenWidth = driver.manage().window().getSize().getWidth();
-                       int screenHeight = driver.manage().window().getSize().getHeight();
-                       new io.appium.java_client.TouchAction<>(driver)
+                       int screenWidth = driver().manage().window().getSize().getWidth();
+                       int screenHeight = driver().manage().window().getSize().getHeight();
+                       new io.appium.java_client.TouchAction<>(driver())
                            .tap(io.appium.java_client.touch.offset.PointOption.point(screenWidth / 2, screenHeight / 2))
                            .perform();
-                       Thread.sleep(1000);
                    } catch (Exception tapEx) {
                        TestLogger.debug("    Tap failed: " + tapEx.getMessage());
                    }
@@ -1061,7 +749,7 @@ public class LoginPage extends DriverManager {
                if (attemptCount % 10 == 0) {
                    TestLogger.debug("    Current page source (for debugging):");
                    try {
-                       String pageSource = driver.getPageSource();
+                       String pageSource = driver().getPageSource();
                        // Print first 2000 chars to avoid log flooding
                        TestLogger.debug(pageSource.length() > 2000 ? pageSource.substring(0, 2000) + "..." : pageSource);
                    } catch (Exception psEx) {
@@ -1069,7 +757,7 @@ public class LoginPage extends DriverManager {
                    }
                }
                
-               Thread.sleep(3000); // Increased sleep for slow CI emulators
+               WaitEngine.backoff(attemptCount); // Backs off towards wait.poll.max.ms on slow CI emulators
                
            } catch (InterruptedException ie) {
                Thread.currentThread().interrupt();
@@ -1078,7 +766,7 @@ public class LoginPage extends DriverManager {
            } catch (Exception e) {
                TestLogger.debug("    Check failed: " + e.getMessage());
                try {
-                   Thread.sleep(3000);
+                   WaitEngine.backoff(attemptCount);
                } catch (InterruptedException ie) {
                    Thread.currentThread().interrupt();
                    return false;
@@ -1092,7 +780,7 @@ public class LoginPage extends DriverManager {
        // Print final page source for debugging
        TestLogger.debug("  Final page source for debugging:");
        try {
-           TestLogger.debug(driver.getPageSource());
+           TestLogger.debug(driver().getPageSource());
        } catch (Exception e) {
            TestLogger.debug("  Could not get page source");
        }
@@ -1104,36 +792,11 @@ public class LoginPage extends DriverManager {
     * Handle the Android ANR (Application Not Responding) dialog if it appears
     */
    public void handleANRDialog() {
-       try {
-           TestLogger.debug("Checking for ANR (Application Not Responding) dialog...");
-           
-           // Check if the ANR dialog title is present
-           if (Utility.isElementPresent(ANR_Dialog_Title, 5)) {
-               TestLogger.info("ANR dialog detected - taking appropriate action");
-               
-               // Click the "Wait" button if available
-               if (Utility.isElementPresent(ANR_Wait_Button, 2)) {
-                   driver.findElement(ANR_Wait_Button).click();
-                   TestLogger.pass("Clicked 'Wait' button on ANR dialog");
-                   Thread.sleep(2000);
-               } 
-               
-               // Alternatively, click the "Close" button if "Wait" is not available
-               else if (Utility.isElementPresent(ANR_Close_Button, 2)) {
-                   driver.findElement(ANR_Close_Button).click();
-                   TestLogger.pass("Clicked 'Close' button on ANR dialog");
-                   Thread.sleep(2000);
-               } 
-               
-               // If neither button is available, print a warning
-               else {
-                   TestLogger.warn("ANR dialog detected but no action taken - buttons not found");
-               }
-           } else {
-               TestLogger.debug("No ANR dialog detected");
-           }
-       } catch (Exception e) {
-           TestLogger.error("Error handling ANR dialog: " + e.getMessage());
+       TestLogger.debug("Checking for ANR (Application Not Responding) dialog...");
+       if (InterruptWatcher.check() > 0) {
+           TestLogger.pass("Dismissed dialog(s) blocking the app");
+       } else {
+           TestLogger.debug("No ANR dialog detected");
        }
    }
 }
\ No newline at end of file
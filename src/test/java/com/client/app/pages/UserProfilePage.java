@@ -2,6 +2,7 @@ package com.client.app.pages;
 
 import appium.webdriver.extensions.DriverManager;
 import appium.webdriver.extensions.Utility;
+import appium.webdriver.extensions.WaitEngine;
 import appium.webdriver.logging.TestLogger;
 import org.openqa.selenium.By;
 
@@ -46,7 +47,7 @@ public class UserProfilePage extends DriverManager {
 			Utility.clickElement(selectUserProfile_xpath, 10);
 			TestLogger.pass("User profile selected");
 			
-			Thread.sleep(1000);
+			WaitEngine.waitForElement(defaultLocationField_id, 5);
 		} catch (Exception e) {
 			TestLogger.error("Error selecting user profile", e);
 			throw new RuntimeException("Failed to select user profile", e);
@@ -59,7 +60,7 @@ public class UserProfilePage extends DriverManager {
 			
 			Utility.waitForElementUntilPresent(defaultLocationField_id, 10);
 			Utility.clickElement(defaultLocationField_id, 10);
-			Thread.sleep(1000);
+			WaitEngine.waitForElement(locationCloseButton_id, 5);
 			defaultLocation = Utility.getTextFromid(defaultLocation_xpath, 10);
 			TestLogger.pass("Default location: " + defaultLocation);
 			Utility.clickElement(locationCloseButton_id, 10);
@@ -74,7 +75,7 @@ public class UserProfilePage extends DriverManager {
 		try {
 			TestLogger.step("Selecting floor option...");
 			Utility.clickElement(defaultFloor_id, 10);
-			Thread.sleep(1000);
+			WaitEngine.waitForElement(floorCloseButton_id, 5);
 			String actualLocation = Utility.getTextFromid(overlayLocationName_id, 10);
 			TestLogger.debug("Overlay location name: " + actualLocation);
 			Utility.clickElement(floorCloseButton_id, 10);
@@ -98,7 +99,7 @@ public class UserProfilePage extends DriverManager {
 			TestLogger.step("Selecting top country...");
 			Utility.waitForElementUntilPresent(defaultCountryField_id, 10);
 			Utility.clickElement(defaultCountryField_id, 10);
-			Thread.sleep(1000);
+			WaitEngine.waitForElement(topCountryName_id, 5);
 			topCountryValue = Utility.getTextFromid(topCountryName_id, 10);
 			TestLogger.debug("Top country value: " + topCountryValue);
 			Utility.clickElement(topCountryName_id, 10);
@@ -113,7 +114,7 @@ public class UserProfilePage extends DriverManager {
 		try {
 			TestLogger.step("Tapping on Save button...");
 			Utility.clickElement(saveButton_id, 10);
-			Thread.sleep(2000);
+			WaitEngine.waitForElement(selectUserProfile_xpath, 5);
 			TestLogger.pass("Save button clicked");
 		} catch (Exception e) {
 			TestLogger.error("Error tapping save button", e);
@@ -126,7 +127,7 @@ public class UserProfilePage extends DriverManager {
 			TestLogger.step("Validating saved value...");
 			Utility.waitForElementUntilPresent(selectUserProfile_xpath, 10);
 			Utility.clickElement(selectUserProfile_xpath, 10);
-			Thread.sleep(1000);
+			WaitEngine.waitForElement(defaultCountryField_id, 5);
 			String updatedValue = Utility.getTextFromid(defaultCountryField_id, 10);
 			TestLogger.debug("Updated value: " + updatedValue);
 			if (!topCountryValue.equals(updatedValue)) {
@@ -144,7 +145,7 @@ public class UserProfilePage extends DriverManager {
 			TestLogger.step("Selecting logout button...");
 			Utility.waitForElementUntilPresent(logoutButton_id, 10);
 			Utility.clickElement(logoutButton_id, 10);
-			Thread.sleep(1000);
+			WaitEngine.waitForElement(logoutPopupMsg_id, 5);
 			TestLogger.pass("Logout button clicked");
 		} catch (Exception e) {
 			TestLogger.error("Error selecting logout button", e);
@@ -158,7 +159,7 @@ public class UserProfilePage extends DriverManager {
 			String actualMsg = Utility.getTextFromid(logoutPopupMsg_id, 10);
 			TestLogger.debug("Popup message: " + actualMsg);
 			Utility.clickElement(logoutCancelButton_id, 10);
-			Thread.sleep(1000);
+			WaitEngine.waitForElementGone(logoutPopupMsg_id, 2);
 			if (!expectedLogoutPopupMsg.equals(actualMsg)) {
 				throw new AssertionError("Logout popup message does not match: expected [" + expectedLogoutPopupMsg + "] but was [" + actualMsg + "]");
 			}
@@ -174,7 +175,7 @@ public class UserProfilePage extends DriverManager {
 			TestLogger.step("Selecting default country...");
 			Utility.waitForElementUntilPresent(defaultCountryField_id, 10);
 			Utility.clickElement(defaultCountryField_id, 10);
-			Thread.sleep(1000);
+			WaitEngine.waitForElement(closeButton_id, 5);
 			defaultCountry = Utility.getTextFromid(defaultCountry_xpath, 10);
 			TestLogger.pass("Default country: " + defaultCountry);
 			return defaultCountry;
@@ -188,7 +189,7 @@ public class UserProfilePage extends DriverManager {
 		try {
 			TestLogger.step("Clicking close button...");
 			Utility.clickElement(closeButton_id, 10);
-			Thread.sleep(1000);
+			WaitEngine.waitForElementGone(closeButton_id, 2);
 			TestLogger.pass("Close button clicked");
 		} catch (Exception e) {
 			TestLogger.error("Error clicking close button", e);
@@ -200,7 +201,7 @@ public class UserProfilePage extends DriverManager {
 		try {
 			TestLogger.step("Verifying country name not changed...");
 			Utility.clickElement(defaultCountryField_id, 10);
-			Thread.sleep(1000);
+			WaitEngine.waitForElement(closeButton_id, 5);
 			String latestCountry = Utility.getTextFromid(defaultCountry_xpath, 10);
 			TestLogger.debug("Latest country: " + latestCountry);
 			Utility.clickElement(closeButton_id, 10);
@@ -219,7 +220,7 @@ public class UserProfilePage extends DriverManager {
 			TestLogger.step("Tapping on floor option...");
 			Utility.waitForElementUntilPresent(defaultFloor_id, 10);
 			Utility.clickElement(defaultFloor_id, 10);
-			Thread.sleep(1000);
+			WaitEngine.waitForElement(closeButton_id, 5);
 			TestLogger.pass("Floor option tapped");
 		} catch (Exception e) {
 			TestLogger.error("Error tapping floor option", e);
@@ -248,7 +249,7 @@ public class UserProfilePage extends DriverManager {
 			TestLogger.step("Tapping on group option...");
 			Utility.waitForElementUntilPresent(defaultGroup_id, 10);
 			Utility.clickElement(defaultGroup_id, 10);
-			Thread.sleep(1000);
+			WaitEngine.waitForElement(closeButton_id, 5);
 			TestLogger.pass("Group option tapped");
 		} catch (Exception e) {
 			TestLogger.error("Error tapping group option", e);
@@ -277,7 +278,7 @@ public class UserProfilePage extends DriverManager {
 			TestLogger.step("Navigating to new booking...");
 			Utility.waitForElementUntilPresent(newBookingTab_xpath, 10);
 			Utility.clickElement(newBookingTab_xpath, 10);
-			Thread.sleep(2000);
+			WaitEngine.waitForElement(bookMeetingSpace_id, 5);
 			TestLogger.pass("Navigated to New Booking Page");
 		} catch (Exception e) {
 			TestLogger.error("Error navigating to new booking", e);
@@ -290,7 +291,7 @@ public class UserProfilePage extends DriverManager {
 			TestLogger.step("Expanding book meeting space section...");
 			Utility.waitForElementUntilPresent(bookMeetingSpace_id, 10);
 			Utility.clickElement(bookMeetingSpace_id, 10);
-			Thread.sleep(1000);
+			WaitEngine.waitForElement(continueBtnOnNewBooking_id, 5);
 			TestLogger.pass("Book meeting space section expanded");
 		} catch (Exception e) {
 			TestLogger.error("Error expanding book meeting space", e);
@@ -302,7 +303,7 @@ public class UserProfilePage extends DriverManager {
 		try {
 			TestLogger.step("Pressing continue button...");
 			Utility.clickElement(continueBtnOnNewBooking_id, 10);
-			Thread.sleep(2000);
+			WaitEngine.waitForElement(floorField_id, 5);
 			TestLogger.pass("Continue button pressed");
 		} catch (Exception e) {
 			TestLogger.error("Error pressing continue", e);
@@ -408,7 +409,7 @@ public class UserProfilePage extends DriverManager {
 			TestLogger.step("Selecting default group...");
 			Utility.waitForElementUntilPresent(defaultGroup_id, 10);
 			Utility.clickElement(defaultGroup_id, 10);
-			Thread.sleep(1000);
+			WaitEngine.waitForElement(closeButton_id, 5);
 			defaultGroup = Utility.getTextFromid(defaultGroupSelected_xpath, 10);
 			TestLogger.pass("Default group: " + defaultGroup);
 			return defaultGroup;
@@ -422,7 +423,7 @@ public class UserProfilePage extends DriverManager {
 		try {
 			TestLogger.step("Verifying group name not changed...");
 			Utility.clickElement(defaultGroup_id, 10);
-			Thread.sleep(1000);
+			WaitEngine.waitForElement(closeButton_id, 5);
 			String latestGroup = Utility.getTextFromid(defaultGroupSelected_xpath, 10);
 			TestLogger.debug("Latest group: " + latestGroup);
 			Utility.clickElement(closeButton_id, 10);
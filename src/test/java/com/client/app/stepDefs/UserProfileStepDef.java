@@ -1,6 +1,7 @@
 package com.client.app.stepDefs;
 
 import org.testng.Assert;
+import com.client.app.pages.LoginPage;
 import com.client.app.pages.UserProfilePage;
 import appium.webdriver.logging.TestLogger;
 import io.cucumber.java.en.Given;
@@ -11,11 +12,13 @@ import io.cucumber.java.en.And;
 public class UserProfileStepDef {
 
 	private final UserProfilePage userProfilePage = new UserProfilePage();
+	private final LoginPage loginPage = new LoginPage();
 
 	//Verify the building the user has currently selected is shown at the top of the overlay
 	@Given("User is on user profile page")
 	public void user_is_on_profile_page() {
 		TestLogger.step("User is on user profile page");
+		loginPage.ensureLoggedIn();
 		userProfilePage.selectUserProfile();
 	}
 